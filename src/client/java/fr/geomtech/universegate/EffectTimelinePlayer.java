@@ -0,0 +1,285 @@
+package fr.geomtech.universegate;
+
+import fr.geomtech.universegate.net.EffectTimelinePayload;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.player.LocalPlayer;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.particles.ParticleOptions;
+import net.minecraft.core.particles.ParticleTypes;
+import net.minecraft.util.Mth;
+import net.minecraft.util.RandomSource;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Plays the effect timelines sent by {@link EffectTimelines}. Each tick of a timeline reseeds its
+ * random source from the payload seed and the elapsed ticks, so every client draws the same
+ * particles without the server sending them.
+ */
+public final class EffectTimelinePlayer {
+
+    private static final long OPENING_BLACKOUT_TICKS = 20L * 2L;
+    private static final double OPENING_PARTICLE_EXPONENT = 4.0D;
+    private static final int OPENING_MAX_PARTICLES_PER_CELL = 7;
+    private static final int BEAM_HEIGHT = 110;
+
+    private record Key(int effect, long origin) {}
+
+    private static final class Timeline {
+        private final EffectTimelinePayload payload;
+        private final RandomSource random = RandomSource.create();
+        private boolean played;
+
+        private Timeline(EffectTimelinePayload payload) {
+            this.payload = payload;
+        }
+    }
+
+    private static final Map<Key, Timeline> TIMELINES = new HashMap<>();
+    private static ClientLevel timelineLevel;
+
+    private EffectTimelinePlayer() {
+    }
+
+    public static void register() {
+        ClientTickEvents.END_WORLD_TICK.register(EffectTimelinePlayer::tick);
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> client.execute(TIMELINES::clear));
+    }
+
+    public static void start(EffectTimelinePayload payload) {
+        ClientLevel level = Minecraft.getInstance().level;
+        if (level == null) return;
+        syncLevel(level);
+
+        Key key = new Key(family(payload.effect()), payload.origin().asLong());
+        if (payload.durationTicks() <= 0) {
+            TIMELINES.remove(key);
+            return;
+        }
+
+        // Resent while running: keep the timeline that is already playing.
+        Timeline current = TIMELINES.get(key);
+        if (current != null && current.payload.startTick() == payload.startTick()) return;
+
+        TIMELINES.put(key, new Timeline(payload));
+    }
+
+    private static int family(int effect) {
+        return effect == EffectTimelines.FIELD_COLLAPSE_UNSTABLE ? EffectTimelines.FIELD_COLLAPSE : effect;
+    }
+
+    private static void syncLevel(ClientLevel level) {
+        if (timelineLevel != level) {
+            TIMELINES.clear();
+            timelineLevel = level;
+        }
+    }
+
+    private static void tick(ClientLevel level) {
+        syncLevel(level);
+        if (TIMELINES.isEmpty()) return;
+
+        LocalPlayer player = Minecraft.getInstance().player;
+        long now = level.getGameTime();
+        Iterator<Timeline> iterator = TIMELINES.values().iterator();
+        while (iterator.hasNext()) {
+            Timeline timeline = iterator.next();
+            EffectTimelinePayload payload = timeline.payload;
+            long elapsed = now - payload.startTick();
+            if (elapsed < 0L) continue;
+            if (elapsed >= payload.durationTicks()) {
+                if (timeline.played) {
+                    iterator.remove();
+                    continue;
+                }
+                // Arrived after its last tick (one-shot effects, lag): still play it once.
+                elapsed = payload.durationTicks() - 1L;
+            }
+            timeline.played = true;
+
+            if (player == null || !inRange(player, payload)) continue;
+
+            timeline.random.setSeed(payload.seed() + elapsed * 0x9E3779B97F4A7C15L);
+            play(level, timeline.random, payload, elapsed);
+        }
+    }
+
+    private static boolean inRange(LocalPlayer player, EffectTimelinePayload payload) {
+        BlockPos origin = payload.origin();
+        double dx = player.getX() - (origin.getX() + 0.5D);
+        double dz = player.getZ() - (origin.getZ() + 0.5D);
+        // The beam climbs far above its origin: only the horizontal distance counts.
+        double dy = payload.effect() == EffectTimelines.METEOROLOGICAL_BEAM ? 0.0D : player.getY() - (origin.getY() + 0.5D);
+        double range = EffectTimelines.VIEW_DISTANCE;
+        return dx * dx + dy * dy + dz * dz <= range * range;
+    }
+
+    private static void play(ClientLevel level, RandomSource random, EffectTimelinePayload payload, long elapsed) {
+        switch (payload.effect()) {
+            case EffectTimelines.PORTAL_OPENING -> playPortalOpening(level, random, payload, elapsed);
+            case EffectTimelines.FIELD_COLLAPSE -> playFieldCollapse(level, random, payload, false);
+            case EffectTimelines.FIELD_COLLAPSE_UNSTABLE -> playFieldCollapse(level, random, payload, true);
+            case EffectTimelines.MOB_CLONING -> playMobCloning(level, random, payload, elapsed);
+            case EffectTimelines.METEOROLOGICAL_BEAM -> playMeteorologicalBeam(level, random, payload, elapsed);
+            default -> {
+            }
+        }
+    }
+
+    // ---------- Portal ----------
+
+    private static void playPortalOpening(ClientLevel level, RandomSource random, EffectTimelinePayload payload, long elapsed) {
+        long duration = Math.max(1L, payload.durationTicks());
+        double progress = Mth.clamp((double) elapsed / (double) duration, 0.0D, 1.0D);
+        double growth = Math.expm1(progress * OPENING_PARTICLE_EXPONENT) / Math.expm1(OPENING_PARTICLE_EXPONENT);
+
+        int baseCount = (int) Math.floor(growth * OPENING_MAX_PARTICLES_PER_CELL);
+        long blackStart = duration - OPENING_BLACKOUT_TICKS;
+        double blackRatio = elapsed <= blackStart
+                ? 0.0D
+                : Mth.clamp((double) (elapsed - blackStart) / (double) Math.max(1L, OPENING_BLACKOUT_TICKS), 0.0D, 1.0D);
+
+        Direction right = payload.orientation();
+        double xSpread = right.getAxis() == Direction.Axis.X ? 0.43D : 0.06D;
+        double zSpread = right.getAxis() == Direction.Axis.X ? 0.06D : 0.43D;
+
+        for (int dy = 1; dy <= PortalFrameDetector.INNER_HEIGHT; dy++) {
+            for (int dx = -PortalFrameDetector.INNER_WIDTH / 2; dx <= PortalFrameDetector.INNER_WIDTH / 2; dx++) {
+                int count = baseCount;
+                if (random.nextDouble() < growth) count++;
+                if (count <= 0) continue;
+
+                int blackCount = blackRatio <= 0.0D ? 0 : (int) Math.round(count * blackRatio);
+                blackCount = Math.min(blackCount, count);
+                int whiteCount = count - blackCount;
+
+                BlockPos p = payload.origin().offset(right.getStepX() * dx, dy, right.getStepZ() * dx);
+                double x = p.getX() + 0.5D;
+                double y = p.getY() + 0.5D;
+                double z = p.getZ() + 0.5D;
+                if (whiteCount > 0) {
+                    burst(level, random, ParticleTypes.END_ROD, x, y, z, whiteCount, xSpread, 0.46D, zSpread, 0.002D);
+                }
+                if (blackCount > 0) {
+                    burst(level, random, ParticleTypes.SQUID_INK, x, y, z, blackCount, xSpread, 0.46D, zSpread, 0.01D);
+                }
+            }
+        }
+    }
+
+    private static void playFieldCollapse(ClientLevel level, RandomSource random, EffectTimelinePayload payload, boolean unstable) {
+        Direction right = payload.orientation();
+        int count = unstable ? 12 : 8;
+
+        for (int dy = 1; dy <= PortalFrameDetector.INNER_HEIGHT; dy++) {
+            for (int dx = -PortalFrameDetector.INNER_WIDTH / 2; dx <= PortalFrameDetector.INNER_WIDTH / 2; dx++) {
+                BlockPos p = payload.origin().offset(right.getStepX() * dx, dy, right.getStepZ() * dx);
+                for (int i = 0; i < count; i++) {
+                    double x = p.getX() + 0.5D;
+                    double y = p.getY() + random.nextDouble();
+                    double z = p.getZ() + 0.5D;
+
+                    if (right.getAxis() == Direction.Axis.X) {
+                        x += (random.nextDouble() - 0.5D) * 0.9D;
+                        z += (random.nextDouble() - 0.5D) * 0.12D;
+                    } else {
+                        x += (random.nextDouble() - 0.5D) * 0.12D;
+                        z += (random.nextDouble() - 0.5D) * 0.9D;
+                    }
+
+                    double vx = (random.nextDouble() - 0.5D) * 0.05D;
+                    double vy = (random.nextDouble() - 0.5D) * 0.04D;
+                    double vz = (random.nextDouble() - 0.5D) * 0.05D;
+                    burst(level, random, ParticleTypes.END_ROD, x, y, z, 1, vx, vy, vz, 0.0D);
+                }
+            }
+        }
+    }
+
+    // ---------- Machines ----------
+
+    private static void playMobCloning(ClientLevel level, RandomSource random, EffectTimelinePayload payload, long elapsed) {
+        BlockPos clonerPos = payload.origin();
+        double centerX = clonerPos.getX() + 0.5D;
+        double centerZ = clonerPos.getZ() + 0.5D;
+        int chargeTicks = (int) elapsed;
+        float progress = Mth.clamp(chargeTicks / (float) Math.max(1, payload.durationTicks()), 0.0F, 1.0F);
+
+        int baseCount = 18 + Mth.floor(progress * 26.0F);
+        for (int layer = 0; layer < 3; layer++) {
+            double y = clonerPos.getY() + 1.2D + layer;
+            double spread = 0.52D - layer * 0.06D;
+
+            burst(level, random, ParticleTypes.PORTAL, centerX, y, centerZ, baseCount + 12, spread, 0.24D, spread, 0.08D);
+            burst(level, random, ParticleTypes.ENCHANT, centerX, y, centerZ, baseCount + 8, spread, 0.18D, spread, 0.03D);
+            burst(level, random, ParticleTypes.END_ROD, centerX, y, centerZ, (baseCount / 2) + 8, spread * 0.85D, 0.16D, spread * 0.85D, 0.0D);
+            burst(level, random, ParticleTypes.GLOW, centerX, y, centerZ, (baseCount / 2) + 6, spread * 0.75D, 0.16D, spread * 0.75D, 0.0D);
+
+            if (((chargeTicks + layer) & 1) == 0) {
+                burst(level, random, ParticleTypes.ELECTRIC_SPARK, centerX, y, centerZ, 8 + Mth.floor(progress * 10.0F), spread * 0.9D, 0.22D, spread * 0.9D, 0.02D);
+            }
+
+            int ringPoints = 14 + Mth.floor(progress * 16.0F);
+            double ringRadius = 0.66D - layer * 0.08D;
+            for (int i = 0; i < ringPoints; i++) {
+                double angle = ((Math.PI * 2.0D) / ringPoints) * i + chargeTicks * 0.24D + layer * 0.35D;
+                double px = centerX + Math.cos(angle) * ringRadius;
+                double py = y - 0.22D + (i % 3) * 0.14D;
+                double pz = centerZ + Math.sin(angle) * ringRadius;
+                burst(level, random, ParticleTypes.END_ROD, px, py, pz, 1, 0.0D, 0.015D, 0.0D, 0.0D);
+            }
+        }
+    }
+
+    private static void playMeteorologicalBeam(ClientLevel level, RandomSource random, EffectTimelinePayload payload, long elapsed) {
+        if (elapsed % 2L != 0L) return;
+
+        BlockPos catalystPos = payload.origin();
+        double centerX = catalystPos.getX() + 0.5D;
+        double centerZ = catalystPos.getZ() + 0.5D;
+        int startY = catalystPos.getY() + 1;
+        int maxY = Math.min(level.getMaxBuildHeight() - 1, startY + BEAM_HEIGHT);
+
+        for (int y = startY; y <= maxY; y += 2) {
+            burst(level, random, ParticleTypes.END_ROD, centerX, y + 0.1D, centerZ, 1, 0.02D, 0.0D, 0.02D, 0.0D);
+        }
+
+        for (int y = startY; y <= maxY; y += 5) {
+            for (int i = 0; i < 14; i++) {
+                double angle = (Math.PI * 2.0D * i / 14.0D) + random.nextDouble() * 0.08D;
+                double x = centerX + Math.cos(angle) * 2.4D;
+                double z = centerZ + Math.sin(angle) * 2.4D;
+                level.addParticle(ParticleTypes.END_ROD, x, y + 0.2D, z, 0.0D, 0.0D, 0.0D);
+            }
+        }
+    }
+
+    // Same spread as a ServerLevel.sendParticles burst once it reaches the client.
+    private static void burst(ClientLevel level,
+                              RandomSource random,
+                              ParticleOptions particle,
+                              double x,
+                              double y,
+                              double z,
+                              int count,
+                              double xSpread,
+                              double ySpread,
+                              double zSpread,
+                              double speed) {
+        for (int i = 0; i < count; i++) {
+            double ox = random.nextGaussian() * xSpread;
+            double oy = random.nextGaussian() * ySpread;
+            double oz = random.nextGaussian() * zSpread;
+            double vx = random.nextGaussian() * speed;
+            double vy = random.nextGaussian() * speed;
+            double vz = random.nextGaussian() * speed;
+            level.addParticle(particle, x + ox, y + oy, z + oz, vx, vy, vz);
+        }
+    }
+}
@@ -32,7 +32,7 @@ public class PortalCoreGlowRenderer implements BlockEntityRenderer<PortalCoreBlo
 
         boolean active = false;
         boolean unstable = false;
-        for (var framePos : PortalFrameHelper.collectFrame(match.get(), blockEntity.getBlockPos())) {
+        for (var framePos : match.get().frame()) {
             BlockState frameState = level.getBlockState(framePos);
             if (!frameState.is(ModBlocks.PORTAL_FRAME)) continue;
             if (frameState.hasProperty(PortalFrameBlock.ACTIVE) && frameState.getValue(PortalFrameBlock.ACTIVE)) {
@@ -124,7 +124,7 @@ public class PortalFrameGlowRenderer implements BlockEntityRenderer<PortalFrameB
         var match = PortalFrameDetector.find(level, corePos);
         if (match.isEmpty()) return false;
 
-        for (BlockPos pos : PortalFrameHelper.collectFrame(match.get(), corePos)) {
+        for (BlockPos pos : match.get().frame()) {
             if (pos.equals(framePos)) return true;
         }
         return false;
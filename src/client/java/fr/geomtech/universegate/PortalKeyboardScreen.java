@@ -4,6 +4,8 @@ import fr.geomtech.universegate.PortalInfo;
 import fr.geomtech.universegate.PortalKeyboardMenu;
 import fr.geomtech.universegate.net.ConnectPortalPayload;
 import fr.geomtech.universegate.net.DisconnectPortalPayload;
+import fr.geomtech.universegate.net.PortalListPayload;
+import fr.geomtech.universegate.net.PortalSearchPayload;
 import fr.geomtech.universegate.net.UniverseGateNetwork;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.minecraft.ChatFormatting;
@@ -21,6 +23,7 @@ import net.minecraft.util.Mth;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 import java.util.function.BooleanSupplier;
 
 public class PortalKeyboardScreen extends AbstractContainerScreen<AbstractContainerMenu> {
@@ -30,9 +33,15 @@ public class PortalKeyboardScreen extends AbstractContainerScreen<AbstractContai
     private static final ResourceLocation ALT_FONT =
             ResourceLocation.fromNamespaceAndPath("minecraft", "alt");
 
-    private final List<PortalInfo> portals = new ArrayList<>();
-    private final List<String> portalSearchIndex = new ArrayList<>();
-    private final List<PortalInfo> filteredPortals = new ArrayList<>();
+    // The server sends one page of matches at a time; only the rows around the scroll position are held.
+    private final List<PortalInfo> pagePortals = new ArrayList<>();
+    private int pageOffset = 0;
+    private int totalPortals = 0;
+    private int requestId = 0;
+    private int pendingOffset = -1;
+    private int sortOrder = PortalSearchPayload.SORT_NAME;
+    private ResourceLocation dimensionFilter = null;
+    private final List<ResourceLocation> knownDimensions = new ArrayList<>();
     private final List<Button> portalButtons = new ArrayList<>();
     private final List<VisiblePortalRow> visibleRows = new ArrayList<>();
     private EditBox searchBox;
@@ -139,18 +148,28 @@ public class PortalKeyboardScreen extends AbstractContainerScreen<AbstractContai
         return keyboardPos;
     }
 
-    /** Appelé par le handler réseau client quand la liste arrive */
-    public void setPortals(List<PortalInfo> newList) {
-        portals.clear();
-        portalSearchIndex.clear();
-        portals.addAll(newList);
-        for (PortalInfo portal : newList) {
-            portalSearchIndex.add(portal.name().toLowerCase(Locale.ROOT));
+    /** Appelé par le handler réseau client quand une page de résultats arrive */
+    public void setPortals(PortalListPayload payload) {
+        // Réponse à une recherche déjà remplacée par une autre
+        if (payload.requestId() != requestId) return;
+
+        pagePortals.clear();
+        for (PortalListPayload.Entry entry : payload.entries()) {
+            PortalInfo portal = PortalListCache.resolve(entry);
+            if (portal != null) {
+                pagePortals.add(portal);
+            }
+        }
+        pageOffset = payload.offset();
+        totalPortals = payload.total();
+        pendingOffset = -1;
+        knownDimensions.clear();
+        knownDimensions.addAll(payload.dimensions());
+        if (payload.requestId() == 0) {
+            lastErrorMessage = null;
         }
-        scrollOffset = 0;
-        lastErrorMessage = null;
-        refreshFilteredPortals();
         rebuildPortalButtons();
+        ensurePageLoaded();
     }
 
     public void setPortalStatus(boolean active, boolean disconnectAllowed) {
@@ -177,20 +196,36 @@ public class PortalKeyboardScreen extends AbstractContainerScreen<AbstractContai
         searchBox = new EditBox(this.font,
                 leftPos + 10,
                 topPos + 10,
-                150,
+                96,
                 16,
                 Component.translatable("gui.universegate.search_portal"));
-        searchBox.setMaxLength(32);
+        searchBox.setMaxLength(PortalSearchPayload.MAX_QUERY_LENGTH);
         searchBox.setValue(searchFilter);
         searchBox.setHint(Component.translatable("gui.universegate.search_portal"));
         searchBox.setResponder((value) -> {
             searchFilter = value == null ? "" : value;
-            scrollOffset = 0;
-            refreshFilteredPortals();
-            rebuildPortalButtons();
+            restartSearch();
         });
         this.addRenderableWidget(searchBox);
 
+        Button sortButton = Button.builder(sortLabel(), (btn) -> {
+                    sortOrder = (sortOrder + 1) % PortalSearchPayload.SORT_COUNT;
+                    btn.setMessage(sortLabel());
+                    restartSearch();
+                })
+                .bounds(leftPos + 110, topPos + 10, 26, 16)
+                .build();
+        this.addRenderableWidget(sortButton);
+
+        Button dimensionButton = Button.builder(dimensionLabel(), (btn) -> {
+                    dimensionFilter = nextDimensionFilter();
+                    btn.setMessage(dimensionLabel());
+                    restartSearch();
+                })
+                .bounds(leftPos + 138, topPos + 10, 26, 16)
+                .build();
+        this.addRenderableWidget(dimensionButton);
+
         disconnectButton = Button.builder(Component.translatable("gui.universegate.disconnect"), (btn) -> {
                     ClientPlayNetworking.send(new DisconnectPortalPayload(this.getKeyboardPos()));
                 })
@@ -200,7 +235,6 @@ public class PortalKeyboardScreen extends AbstractContainerScreen<AbstractContai
         updateDisconnectButton();
 
         ensurePortalButtons();
-        refreshFilteredPortals();
         rebuildPortalButtons();
     }
 
@@ -243,19 +277,20 @@ public class PortalKeyboardScreen extends AbstractContainerScreen<AbstractContai
         ensurePortalButtons();
         visibleRows.clear();
 
-        clampScrollOffset(filteredPortals.size());
-        int max = Math.min(VISIBLE_PORTALS, Math.max(0, filteredPortals.size() - scrollOffset));
+        clampScrollOffset(totalPortals);
         boolean darkPowered = this.darkPoweredSupplier.getAsBoolean();
 
         for (int i = 0; i < VISIBLE_PORTALS; i++) {
             Button button = portalButtons.get(i);
-            if (i >= max) {
+            // Rows outside the loaded page stay hidden until the next page arrives.
+            int pageIndex = scrollOffset + i - pageOffset;
+            if (scrollOffset + i >= totalPortals || pageIndex < 0 || pageIndex >= pagePortals.size()) {
                 button.visible = false;
                 button.active = false;
                 continue;
             }
 
-            PortalInfo portal = filteredPortals.get(i + scrollOffset);
+            PortalInfo portal = pagePortals.get(pageIndex);
             boolean isDarkDim = UniverseGateNetwork.DARK_DIMENSION_ID.equals(portal.id());
             boolean darkLocked = isDarkDim && !darkPowered;
 
@@ -286,6 +321,28 @@ public class PortalKeyboardScreen extends AbstractContainerScreen<AbstractContai
         return label;
     }
 
+    private Component sortLabel() {
+        return switch (sortOrder) {
+            case PortalSearchPayload.SORT_DISTANCE -> Component.translatable("gui.universegate.portal_sort_distance");
+            case PortalSearchPayload.SORT_COST -> Component.translatable("gui.universegate.portal_sort_cost");
+            default -> Component.translatable("gui.universegate.portal_sort_name");
+        };
+    }
+
+    private Component dimensionLabel() {
+        return dimensionFilter == null
+                ? Component.translatable("gui.universegate.portal_dimension_all")
+                : Component.literal(shortDim(dimensionFilter));
+    }
+
+    // Tous, puis chaque dimension qui contient des portails
+    private ResourceLocation nextDimensionFilter() {
+        if (knownDimensions.isEmpty()) return null;
+        if (dimensionFilter == null) return knownDimensions.get(0);
+        int index = knownDimensions.indexOf(dimensionFilter);
+        return index < 0 || index + 1 >= knownDimensions.size() ? null : knownDimensions.get(index + 1);
+    }
+
     private String shortDim(ResourceLocation dim) {
         String path = dim.getPath();
         if (path.contains("overworld")) return "OW";
@@ -349,12 +406,12 @@ public class PortalKeyboardScreen extends AbstractContainerScreen<AbstractContai
             g.fill(badgeX, badgeY, badgeX + COST_BADGE_WIDTH, badgeY + ROW_HEIGHT - 3, fillColor);
         }
 
-        if (filteredPortals.size() > VISIBLE_PORTALS) {
+        if (totalPortals > VISIBLE_PORTALS) {
             int trackX = leftPos + imageWidth - 8;
             int trackY = topPos + 40;
             int trackH = 112;
-            int handleH = Math.max(10, trackH * VISIBLE_PORTALS / filteredPortals.size());
-            int maxOffset = Math.max(1, filteredPortals.size() - VISIBLE_PORTALS);
+            int handleH = Math.max(10, trackH * VISIBLE_PORTALS / totalPortals);
+            int maxOffset = Math.max(1, totalPortals - VISIBLE_PORTALS);
             int handleY = trackY + (trackH - handleH) * scrollOffset / maxOffset;
             g.fill(trackX, trackY, trackX + 3, trackY + trackH, 0xFF1E222B);
             g.fill(trackX, handleY, trackX + 3, handleY + handleH, 0xFF61A7D8);
@@ -390,10 +447,11 @@ public class PortalKeyboardScreen extends AbstractContainerScreen<AbstractContai
 
     @Override
     public boolean mouseScrolled(double mouseX, double mouseY, double deltaX, double deltaY) {
-        if (filteredPortals.size() <= VISIBLE_PORTALS) return super.mouseScrolled(mouseX, mouseY, deltaX, deltaY);
+        if (totalPortals <= VISIBLE_PORTALS) return super.mouseScrolled(mouseX, mouseY, deltaX, deltaY);
         int direction = deltaY > 0 ? -1 : 1;
-        scrollOffset = Mth.clamp(scrollOffset + direction, 0, filteredPortals.size() - VISIBLE_PORTALS);
+        scrollOffset = Mth.clamp(scrollOffset + direction, 0, totalPortals - VISIBLE_PORTALS);
         rebuildPortalButtons();
+        ensurePageLoaded();
         return true;
     }
 
@@ -402,22 +460,27 @@ public class PortalKeyboardScreen extends AbstractContainerScreen<AbstractContai
         scrollOffset = Mth.clamp(scrollOffset, 0, maxOffset);
     }
 
-    private void refreshFilteredPortals() {
-        filteredPortals.clear();
-        String query = searchFilter == null ? "" : searchFilter.trim().toLowerCase(Locale.ROOT);
+    private void restartSearch() {
+        scrollOffset = 0;
+        requestPage(0);
+    }
 
-        if (portalSearchIndex.size() != portals.size()) {
-            portalSearchIndex.clear();
-            for (PortalInfo portal : portals) {
-                portalSearchIndex.add(portal.name().toLowerCase(Locale.ROOT));
-            }
-        }
+    // Asks for the page around the visible rows when they are not all loaded.
+    private void ensurePageLoaded() {
+        int end = Math.min(totalPortals, scrollOffset + VISIBLE_PORTALS);
+        if (scrollOffset >= pageOffset && end <= pageOffset + pagePortals.size()) return;
+        if (pendingOffset >= 0 && scrollOffset >= pendingOffset
+                && end <= pendingOffset + UniverseGateNetwork.PORTAL_SEARCH_PAGE_SIZE) return;
 
-        for (int i = 0; i < portals.size(); i++) {
-            if (query.isEmpty() || portalSearchIndex.get(i).contains(query)) {
-                filteredPortals.add(portals.get(i));
-            }
-        }
+        int margin = (UniverseGateNetwork.PORTAL_SEARCH_PAGE_SIZE - VISIBLE_PORTALS) / 2;
+        requestPage(Math.max(0, scrollOffset - margin));
+    }
+
+    private void requestPage(int offset) {
+        requestId++;
+        pendingOffset = offset;
+        Optional<ResourceLocation> dimension = Optional.ofNullable(dimensionFilter);
+        ClientPlayNetworking.send(new PortalSearchPayload(this.getKeyboardPos(), requestId, searchFilter, sortOrder, dimension, offset));
     }
 
     @Override
@@ -0,0 +1,55 @@
+package fr.geomtech.universegate;
+
+import fr.geomtech.universegate.net.PortalListPayload;
+import fr.geomtech.universegate.net.PortalListSyncPayload;
+import fr.geomtech.universegate.net.UniverseGateNetwork;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Client copy of the portal listings the server has sent on the current connection. Search pages
+ * only carry ids and costs; the names and positions are looked up here.
+ */
+public final class PortalListCache {
+
+    private static final ResourceLocation DARK_DIMENSION_DIM = ResourceLocation.parse("universegate:rift");
+
+    private static final Map<UUID, PortalInfo> PORTALS = new HashMap<>();
+
+    private PortalListCache() {
+    }
+
+    public static void register() {
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> client.execute(PORTALS::clear));
+    }
+
+    // Must see every payload, even with no keyboard screen open, or the copy drifts from the server.
+    public static void apply(PortalListSyncPayload payload) {
+        if (payload.reset()) {
+            PORTALS.clear();
+        }
+        for (UUID id : payload.removed()) {
+            PORTALS.remove(id);
+        }
+        for (PortalInfo info : payload.changed()) {
+            PORTALS.put(info.id(), info);
+        }
+    }
+
+    // Row of a search page, or null if the copy lacks the listing (the server always sends it first).
+    @Nullable
+    public static PortalInfo resolve(PortalListPayload.Entry entry) {
+        if (UniverseGateNetwork.DARK_DIMENSION_ID.equals(entry.id())) {
+            return new PortalInfo(entry.id(), "§cDark Dimension", DARK_DIMENSION_DIM, BlockPos.ZERO, entry.openEnergyCost());
+        }
+        PortalInfo info = PORTALS.get(entry.id());
+        if (info == null) return null;
+        return new PortalInfo(info.id(), info.name(), info.dimId(), info.corePos(), entry.openEnergyCost());
+    }
+}
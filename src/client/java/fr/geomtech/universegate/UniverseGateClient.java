@@ -48,5 +48,7 @@ public class UniverseGateClient implements ClientModInitializer {
 		fr.geomtech.universegate.net.UniverseGateClientNetwork.registerClient();
 		ModTooltips.register();
 		DnaExtractionHudOverlay.register();
+		EffectTimelinePlayer.register();
+		PortalListCache.register();
 	}
 }
@@ -1,7 +1,9 @@
 package fr.geomtech.universegate.net;
 
+import fr.geomtech.universegate.EffectTimelinePlayer;
 import fr.geomtech.universegate.PortalCoreScreen;
 import fr.geomtech.universegate.PortalKeyboardScreen;
+import fr.geomtech.universegate.PortalListCache;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 
 public final class UniverseGateClientNetwork {
@@ -9,10 +11,14 @@ public final class UniverseGateClientNetwork {
     private UniverseGateClientNetwork() {}
 
     public static void registerClient() {
+        ClientPlayNetworking.registerGlobalReceiver(PortalListSyncPayload.TYPE, (payload, context) -> {
+            context.client().execute(() -> PortalListCache.apply(payload));
+        });
+
         ClientPlayNetworking.registerGlobalReceiver(PortalListPayload.TYPE, (payload, context) -> {
             context.client().execute(() -> {
                 if (context.client().screen instanceof PortalKeyboardScreen screen) {
-                    screen.setPortals(payload.portals());
+                    screen.setPortals(payload);
                 }
             });
         });
@@ -44,5 +50,9 @@ public final class UniverseGateClientNetwork {
                 }
             });
         });
+
+        ClientPlayNetworking.registerGlobalReceiver(EffectTimelinePayload.TYPE, (payload, context) -> {
+            context.client().execute(() -> EffectTimelinePlayer.start(payload));
+        });
     }
 }
@@ -4,6 +4,7 @@ import net.minecraft.core.BlockPos;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 
@@ -40,8 +41,9 @@ public class ChargedLightningRodBlockEntity extends BlockEntity {
         if (charge == value) return;
         charge = value;
         setChanged();
-        if (level != null && !level.isClientSide) {
-            level.sendBlockUpdated(worldPosition, getBlockState(), getBlockState(), 3);
+        if (level instanceof ServerLevel sl) {
+            ChargedRodIndex.onChargeChanged(sl, this);
+            sl.sendBlockUpdated(worldPosition, getBlockState(), getBlockState(), 3);
         }
     }
 
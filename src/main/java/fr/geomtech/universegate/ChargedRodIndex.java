@@ -0,0 +1,106 @@
+package fr.geomtech.universegate;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerBlockEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Per-level index of the charged lightning rods in loaded chunks, bucketed by chunk. A rod is
+ * listed while it holds charge, so a nearest-rod query only looks at the rods in the few chunks
+ * its box covers.
+ */
+public final class ChargedRodIndex {
+
+    private static final Map<ResourceKey<Level>, Long2ObjectOpenHashMap<LongArrayList>> RODS = new HashMap<>();
+
+    private ChargedRodIndex() {}
+
+    public static void register() {
+        ServerWorldEvents.UNLOAD.register((server, world) -> RODS.remove(world.dimension()));
+        ServerBlockEntityEvents.BLOCK_ENTITY_LOAD.register((blockEntity, world) -> {
+            if (blockEntity instanceof ChargedLightningRodBlockEntity rod && rod.hasCharge()) {
+                add(world, rod.getBlockPos());
+                PortalCoreTicker.wakeNear(world, rod.getBlockPos(), ChargedLightningRodBlock.PORTAL_RADIUS);
+            }
+        });
+        ServerBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register((blockEntity, world) -> {
+            if (blockEntity instanceof ChargedLightningRodBlockEntity rod) {
+                remove(world, rod.getBlockPos());
+            }
+        });
+    }
+
+    static void onChargeChanged(ServerLevel level, ChargedLightningRodBlockEntity rod) {
+        if (rod.hasCharge() && !rod.isRemoved()) {
+            add(level, rod.getBlockPos());
+            PortalCoreTicker.wakeNear(level, rod.getBlockPos(), ChargedLightningRodBlock.PORTAL_RADIUS);
+        } else {
+            remove(level, rod.getBlockPos());
+        }
+    }
+
+    // Nearest charged rod within the cube of the given radius, in loaded chunks only.
+    public static Optional<ChargedLightningRodBlockEntity> findNearest(ServerLevel level, BlockPos center, int radius) {
+        Long2ObjectOpenHashMap<LongArrayList> buckets = RODS.get(level.dimension());
+        if (buckets == null || buckets.isEmpty()) return Optional.empty();
+
+        ChargedLightningRodBlockEntity best = null;
+        double bestDist = Double.MAX_VALUE;
+        for (int chunkX = (center.getX() - radius) >> 4; chunkX <= (center.getX() + radius) >> 4; chunkX++) {
+            for (int chunkZ = (center.getZ() - radius) >> 4; chunkZ <= (center.getZ() + radius) >> 4; chunkZ++) {
+                LongArrayList positions = buckets.get(ChunkPos.asLong(chunkX, chunkZ));
+                if (positions == null) continue;
+
+                for (int i = 0; i < positions.size(); i++) {
+                    BlockPos p = BlockPos.of(positions.getLong(i));
+                    if (Math.abs(p.getX() - center.getX()) > radius
+                            || Math.abs(p.getY() - center.getY()) > radius
+                            || Math.abs(p.getZ() - center.getZ()) > radius) {
+                        continue;
+                    }
+                    if (!(level.getBlockEntity(p) instanceof ChargedLightningRodBlockEntity be)) continue;
+                    if (!be.hasCharge()) continue;
+                    double dist = p.distSqr(center);
+                    if (dist < bestDist) {
+                        bestDist = dist;
+                        best = be;
+                    }
+                }
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    private static void add(ServerLevel level, BlockPos pos) {
+        LongArrayList positions = RODS.computeIfAbsent(level.dimension(), k -> new Long2ObjectOpenHashMap<>())
+                .computeIfAbsent(ChunkPos.asLong(pos), k -> new LongArrayList(1));
+        long key = pos.asLong();
+        if (!positions.contains(key)) {
+            positions.add(key);
+        }
+    }
+
+    private static void remove(ServerLevel level, BlockPos pos) {
+        Long2ObjectOpenHashMap<LongArrayList> buckets = RODS.get(level.dimension());
+        if (buckets == null) return;
+
+        long chunkKey = ChunkPos.asLong(pos);
+        LongArrayList positions = buckets.get(chunkKey);
+        if (positions == null) return;
+
+        positions.rem(pos.asLong());
+        if (positions.isEmpty()) {
+            buckets.remove(chunkKey);
+        }
+    }
+}
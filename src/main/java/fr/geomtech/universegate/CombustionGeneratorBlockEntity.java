@@ -81,13 +81,8 @@ public class CombustionGeneratorBlockEntity extends BlockEntity implements World
         }
 
         if (entity.bufferedEnergy > 0) {
-            EnergyNetworkHelper.CondenserNetwork network = EnergyNetworkHelper.scanCondenserNetwork(serverLevel, pos);
             int toSend = Math.min(entity.bufferedEnergy, OUTPUT_PER_INTERVAL);
-            int sent = EnergyNetworkHelper.distributeEnergy(serverLevel, network.condensers(), toSend);
-            if (sent > 0) {
-                entity.bufferedEnergy -= sent;
-                dirty = true;
-            }
+            EnergyNetworkHelper.postEnergyProduction(serverLevel, pos, toSend, entity::onEnergySent);
         }
 
         dirty |= entity.syncLitState(state);
@@ -97,6 +92,12 @@ public class CombustionGeneratorBlockEntity extends BlockEntity implements World
         }
     }
 
+    private void onEnergySent(int sent) {
+        if (sent <= 0) return;
+        bufferedEnergy = Math.max(0, bufferedEnergy - sent);
+        setChanged();
+    }
+
     public ContainerData dataAccess() {
         return dataAccess;
     }
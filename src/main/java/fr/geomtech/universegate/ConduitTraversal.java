@@ -0,0 +1,200 @@
+package fr.geomtech.universegate;
+
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Predicate;
+
+/**
+ * Breadth-first walk over a line of conduit-like blocks, shared by the energy, dark energy and
+ * weather machine scans. Positions are packed longs in an open-addressing set and a ring queue,
+ * and the instance is reused per thread, so a scan does not allocate once the buffers have grown.
+ * Block states are read straight from the current chunk section and only go through the level
+ * when the walk crosses into another section. Uncapped walks can stop at unloaded chunks instead
+ * of loading them; the chunks they were cut at are reported.
+ */
+final class ConduitTraversal implements AutoCloseable {
+
+    // Called for every non-conduit block next to a visited conduit (or next to a seeded machine),
+    // with the direction from that conduit or machine. Return true to stop the walk.
+    // The position is a cursor: call immutable() before keeping it.
+    @FunctionalInterface
+    interface Visitor {
+        boolean visit(Level level, BlockPos pos, BlockState state, Direction direction);
+    }
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final ThreadLocal<ConduitTraversal> SCRATCH = ThreadLocal.withInitial(ConduitTraversal::new);
+
+    private final LongOpenHashSet visited = new LongOpenHashSet();
+    private final LongOpenHashSet unloadedChunks = new LongOpenHashSet();
+    private final LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+    private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+    private final BlockPos.MutableBlockPos neighbor = new BlockPos.MutableBlockPos();
+
+    private Predicate<BlockState> conduit = state -> false;
+    private boolean visitEndpointsOnce = false;
+    private boolean stopAtUnloadedChunks = false;
+    private boolean truncated = false;
+    private boolean inUse = false;
+
+    // Most neighbors sit in the same 16x16x16 section, so the last one is kept and read directly.
+    private long sectionKey = Long.MAX_VALUE;
+    @Nullable
+    private LevelChunkSection section;
+    private boolean sectionUnloaded = false;
+
+    private ConduitTraversal() {}
+
+    static ConduitTraversal acquire(Predicate<BlockState> conduit) {
+        ConduitTraversal traversal = SCRATCH.get();
+        // A visitor may start a nested walk: it gets its own buffers.
+        if (traversal.inUse) {
+            traversal = new ConduitTraversal();
+        }
+        traversal.inUse = true;
+        traversal.conduit = conduit;
+        traversal.visitEndpointsOnce = false;
+        traversal.stopAtUnloadedChunks = false;
+        traversal.truncated = false;
+        traversal.visited.clear();
+        traversal.unloadedChunks.clear();
+        traversal.queue.clear();
+        traversal.forgetSection();
+        return traversal;
+    }
+
+    ConduitTraversal visitEndpointsOnce() {
+        visitEndpointsOnce = true;
+        return this;
+    }
+
+    // Blocks in unloaded chunks read as air, so the walk never loads a chunk on the server thread.
+    ConduitTraversal stopAtUnloadedChunks() {
+        stopAtUnloadedChunks = true;
+        return this;
+    }
+
+    boolean seedConduit(Level level, BlockPos pos) {
+        if (!conduit.test(stateAt(level, pos))) return false;
+        return enqueue(pos.asLong());
+    }
+
+    // Seeds the conduits around a machine; its other neighbors go to the visitor.
+    boolean seedAround(Level level, BlockPos origin, Visitor visitor) {
+        for (Direction direction : DIRECTIONS) {
+            neighbor.setWithOffset(origin, direction);
+            BlockState state = stateAt(level, neighbor);
+            if (conduit.test(state)) {
+                enqueue(neighbor.asLong());
+            } else if (visitEndpoint(level, state, direction, visitor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns true when the visitor stopped the walk.
+    boolean run(Level level, int maxNodes, Visitor visitor) {
+        int searched = 0;
+        while (!queue.isEmpty()) {
+            if (searched >= maxNodes) {
+                truncated = true;
+                return false;
+            }
+            cursor.set(queue.dequeueLong());
+            searched++;
+
+            for (Direction direction : DIRECTIONS) {
+                neighbor.setWithOffset(cursor, direction);
+                BlockState state = stateAt(level, neighbor);
+                if (conduit.test(state)) {
+                    enqueue(neighbor.asLong());
+                    continue;
+                }
+                if (visitEndpoint(level, state, direction, visitor)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    boolean truncated() {
+        return truncated;
+    }
+
+    // Conduits reached so far; only valid until the traversal is closed.
+    LongOpenHashSet visited() {
+        return visited;
+    }
+
+    // Chunks the walk could not enter (with stopAtUnloadedChunks); only valid until the traversal is closed.
+    LongOpenHashSet unloadedChunks() {
+        return unloadedChunks;
+    }
+
+    @Override
+    public void close() {
+        inUse = false;
+        forgetSection();
+    }
+
+    private BlockState stateAt(Level level, BlockPos pos) {
+        int x = pos.getX();
+        int y = pos.getY();
+        int z = pos.getZ();
+        long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+        if (key != sectionKey) {
+            sectionKey = key;
+            loadSection(level, x, y, z);
+        }
+        if (section != null) return section.getBlockState(x & 15, y & 15, z & 15);
+        if (sectionUnloaded && stopAtUnloadedChunks) {
+            unloadedChunks.add(ChunkPos.asLong(x >> 4, z >> 4));
+            return Blocks.AIR.defaultBlockState();
+        }
+        // Unloaded chunks and out-of-world positions keep the level's own handling.
+        return level.getBlockState(pos);
+    }
+
+    private void loadSection(Level level, int x, int y, int z) {
+        section = null;
+        sectionUnloaded = false;
+        if (level.isOutsideBuildHeight(y)) return;
+
+        LevelChunk chunk = level.getChunkSource().getChunkNow(x >> 4, z >> 4);
+        if (chunk == null) {
+            sectionUnloaded = true;
+            return;
+        }
+        section = chunk.getSection(chunk.getSectionIndex(y));
+    }
+
+    private void forgetSection() {
+        sectionKey = Long.MAX_VALUE;
+        section = null;
+        sectionUnloaded = false;
+    }
+
+    private boolean enqueue(long pos) {
+        if (!visited.add(pos)) return false;
+        queue.enqueue(pos);
+        return true;
+    }
+
+    private boolean visitEndpoint(Level level, BlockState state, Direction direction, Visitor visitor) {
+        if (visitEndpointsOnce && !visited.add(neighbor.asLong())) return false;
+        return visitor.visit(level, neighbor, state, direction);
+    }
+}
@@ -2,6 +2,7 @@ package fr.geomtech.universegate;
 
 import net.fabricmc.fabric.api.screenhandler.v1.ExtendedScreenHandlerFactory;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
@@ -26,7 +27,11 @@ public class DarkEnergyGeneratorBlockEntity extends BlockEntity implements Exten
     public static final int OUTPUT_PER_TICK = 10;
     public static final int NETWORK_BUFFER_RESERVE = 50;
 
+    private static final int MAX_CONDUIT_SEARCH = 64;
+
     private boolean isRunning = false;
+    private int distributionBudget = 0;
+    private final ConduitTraversal.Visitor coreFeeder = this::feedCore;
 
     private final ContainerData dataAccess = new ContainerData() {
         @Override
@@ -92,67 +97,35 @@ public class DarkEnergyGeneratorBlockEntity extends BlockEntity implements Exten
         }
 
         int before = energyAmount;
-        int[] budget = new int[] { transferableEnergy };
-
-        // Push to adjacent Portal Core or through conduits
-        for (net.minecraft.core.Direction dir : net.minecraft.core.Direction.values()) {
-            if (energyAmount <= 0 || budget[0] <= 0) break;
-            
-            BlockPos neighborPos = pos.relative(dir);
-            BlockState neighborState = level.getBlockState(neighborPos);
-            BlockEntity neighborBe = level.getBlockEntity(neighborPos);
-            
-            if (neighborBe instanceof PortalCoreBlockEntity core) {
-                int accepted = core.addDarkEnergy(Math.min(Math.min(energyAmount, budget[0]), OUTPUT_PER_TICK));
-                energyAmount -= accepted;
-                budget[0] -= accepted;
-            } else if (neighborState.is(ModBlocks.DARK_ENERGY_CONDUIT)) {
-                distributeThroughConduits(level, neighborPos, new java.util.HashSet<>(), budget);
+        distributionBudget = transferableEnergy;
+
+        // Push to adjacent Portal Cores, then through conduits and portal frames
+        try (ConduitTraversal traversal = ConduitTraversal.acquire(DarkEnergyGeneratorBlockEntity::carriesDarkEnergy)
+                .visitEndpointsOnce()) {
+            if (!traversal.seedAround(level, pos, coreFeeder)) {
+                traversal.run(level, MAX_CONDUIT_SEARCH, coreFeeder);
             }
         }
 
         return energyAmount != before;
     }
 
-    private void distributeThroughConduits(Level level,
-                                           BlockPos start,
-                                           java.util.Set<BlockPos> visited,
-                                           int[] budget) {
-        java.util.Queue<BlockPos> queue = new java.util.LinkedList<>();
-        queue.add(start);
-        visited.add(start);
-        
-        int depth = 0;
-        while (!queue.isEmpty() && depth < 64 && energyAmount > 0 && budget[0] > 0) {
-            BlockPos current = queue.poll();
-            depth++;
-            
-            for (net.minecraft.core.Direction dir : net.minecraft.core.Direction.values()) {
-                if (budget[0] <= 0 || energyAmount <= 0) {
-                    return;
-                }
-
-                BlockPos next = current.relative(dir);
-                if (visited.contains(next)) continue;
-                
-                BlockState state = level.getBlockState(next);
-                BlockEntity be = level.getBlockEntity(next);
-                
-                if (be instanceof PortalCoreBlockEntity core) {
-                    int accepted = core.addDarkEnergy(Math.min(Math.min(energyAmount, budget[0]), OUTPUT_PER_TICK));
-                    energyAmount -= accepted;
-                    budget[0] -= accepted;
-                    visited.add(next);
-                    if (energyAmount <= 0 || budget[0] <= 0) return;
-                } else if (state.is(ModBlocks.DARK_ENERGY_CONDUIT)
-                        || state.is(ModBlocks.PORTAL_FRAME)
-                        || state.is(ModBlocks.PORTAL_KEYBOARD)
-                        || state.is(ModBlocks.PORTAL_NATURAL_KEYBOARD)) {
-                    visited.add(next);
-                    queue.add(next);
-                }
-            }
-        }
+    // Returns true once the budget or the buffer is exhausted, which stops the walk.
+    private boolean feedCore(Level level, BlockPos pos, BlockState state, Direction direction) {
+        if (!state.is(ModBlocks.PORTAL_CORE)) return false;
+        if (!(level.getBlockEntity(pos) instanceof PortalCoreBlockEntity core)) return false;
+
+        int accepted = core.addDarkEnergy(Math.min(Math.min(energyAmount, distributionBudget), OUTPUT_PER_TICK));
+        energyAmount -= accepted;
+        distributionBudget -= accepted;
+        return energyAmount <= 0 || distributionBudget <= 0;
+    }
+
+    private static boolean carriesDarkEnergy(BlockState state) {
+        return state.is(ModBlocks.DARK_ENERGY_CONDUIT)
+                || state.is(ModBlocks.PORTAL_FRAME)
+                || state.is(ModBlocks.PORTAL_KEYBOARD)
+                || state.is(ModBlocks.PORTAL_NATURAL_KEYBOARD);
     }
 
     public boolean isGenerating() {
@@ -3,15 +3,14 @@ package fr.geomtech.universegate;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 
-import fr.geomtech.universegate.PortalFrameHelper;
 import fr.geomtech.universegate.PortalFrameDetector;
 
 import java.util.HashSet;
 import java.util.Set;
-import java.util.ArrayDeque;
 
 public final class DarkEnergyNetworkHelper {
 
@@ -27,7 +26,7 @@ public final class DarkEnergyNetworkHelper {
         // Collect all relevant positions: Core + Frames
         Set<BlockPos> framePositions = new HashSet<>();
         framePositions.add(corePos);
-        framePositions.addAll(PortalFrameHelper.collectFrame(match.get(), corePos));
+        framePositions.addAll(match.get().frame());
 
         return isConnectedToPoweredGenerator(level, framePositions);
     }
@@ -39,44 +38,17 @@ public final class DarkEnergyNetworkHelper {
     }
 
     private static boolean isConnectedToPoweredGenerator(ServerLevel level, Set<BlockPos> sourcePositions) {
-        Set<BlockPos> visited = new HashSet<>();
-        ArrayDeque<BlockPos> queue = new ArrayDeque<>();
-
-        for (BlockPos sourcePos : sourcePositions) {
-            for (Direction dir : Direction.values()) {
-                BlockPos neighbor = sourcePos.relative(dir);
-                if (isGeneratorOnline(level, neighbor)) {
-                    return true;
-                }
-
-                if (isValidConduit(level, neighbor) && visited.add(neighbor.immutable())) {
-                    queue.add(neighbor.immutable());
-                }
-            }
-        }
-
-        int steps = 0;
-        while (!queue.isEmpty() && steps < MAX_SEARCH_DEPTH) {
-            BlockPos current = queue.poll();
-            steps++;
-
-            for (Direction dir : Direction.values()) {
-                BlockPos neighbor = current.relative(dir);
-                if (isGeneratorOnline(level, neighbor)) {
+        try (ConduitTraversal traversal = ConduitTraversal.acquire(DarkEnergyNetworkHelper::isValidConduit)) {
+            for (BlockPos sourcePos : sourcePositions) {
+                if (traversal.seedAround(level, sourcePos, DarkEnergyNetworkHelper::isGeneratorOnline)) {
                     return true;
                 }
-
-                if (isValidConduit(level, neighbor) && visited.add(neighbor.immutable())) {
-                    queue.add(neighbor.immutable());
-                }
             }
+            return traversal.run(level, MAX_SEARCH_DEPTH, DarkEnergyNetworkHelper::isGeneratorOnline);
         }
-
-        return false;
     }
 
-    private static boolean isGeneratorOnline(ServerLevel level, BlockPos pos) {
-        BlockState state = level.getBlockState(pos);
+    private static boolean isGeneratorOnline(Level level, BlockPos pos, BlockState state, Direction direction) {
         if (!state.is(ModBlocks.DARK_ENERGY_GENERATOR)) {
             return false;
         }
@@ -85,7 +57,7 @@ public final class DarkEnergyNetworkHelper {
         return be instanceof DarkEnergyGeneratorBlockEntity generator && generator.canSupplyNetwork();
     }
 
-    private static boolean isValidConduit(ServerLevel level, BlockPos pos) {
-        return level.getBlockState(pos).is(ModBlocks.DARK_ENERGY_CONDUIT);
+    private static boolean isValidConduit(BlockState state) {
+        return state.is(ModBlocks.DARK_ENERGY_CONDUIT);
     }
 }
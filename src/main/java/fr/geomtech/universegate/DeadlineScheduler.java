@@ -0,0 +1,253 @@
+package fr.geomtech.universegate;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.saveddata.SavedData;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Server-wide hierarchical timing wheel keyed on overworld game time. Subsystems schedule a typed
+ * task with an NBT payload instead of polling their deadlines every tick; a tick only touches the
+ * wheel slot that is due, plus a cascade of one upper slot every 256 ticks. Pending tasks are
+ * saved with the world, so deadlines survive a restart.
+ */
+public class DeadlineScheduler extends SavedData {
+
+    @FunctionalInterface
+    public interface Handler {
+        void run(MinecraftServer server, CompoundTag data);
+    }
+
+    private static final String DATA_NAME = UniverseGate.MOD_ID + "_deadlines";
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int WHEELS = 4;
+    private static final Map<String, Handler> HANDLERS = new HashMap<>();
+
+    private static final class Task {
+        private final long id;
+        private final long dueTick;
+        private final String type;
+        private final CompoundTag data;
+        private boolean cancelled;
+
+        private Task(long id, long dueTick, String type, CompoundTag data) {
+            this.id = id;
+            this.dueTick = dueTick;
+            this.type = type;
+            this.data = data;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private final List<Task>[][] wheels = new List[WHEELS][SLOTS];
+    private final List<Task> overflow = new ArrayList<>();
+    private final Long2ObjectOpenHashMap<Task> tasks = new Long2ObjectOpenHashMap<>();
+    // Last game tick whose slot has been fired.
+    private long cursor = -1L;
+    private long nextId = 1L;
+
+    public static void register() {
+        HANDLERS.put(PortalCoreBlockEntity.DEADLINE_TASK, PortalCoreBlockEntity::onDeadline);
+        HANDLERS.put(PortalRiftHelper.RIFT_COLLAPSE_TASK, PortalRiftHelper::onRiftCollapseStep);
+        HANDLERS.put(PortalPursuitTracker.PURSUIT_TASK, PortalPursuitTracker::onPursuitStep);
+
+        ServerTickEvents.END_SERVER_TICK.register(server -> get(server).advance(server, server.overworld().getGameTime()));
+    }
+
+    public static DeadlineScheduler get(MinecraftServer server) {
+        ServerLevel overworld = server.overworld();
+        return overworld.getDataStorage().computeIfAbsent(
+                new SavedData.Factory<>(
+                        DeadlineScheduler::new,
+                        DeadlineScheduler::load,
+                        null
+                ),
+                DATA_NAME
+        );
+    }
+
+    // ---------- API ----------
+
+    // Runs the handler for this type at the end of the given game tick (next tick if already past).
+    public static long schedule(MinecraftServer server, long dueTick, String type, CompoundTag data) {
+        return get(server).add(dueTick, type, data);
+    }
+
+    private long add(long dueTick, String type, CompoundTag data) {
+        Task task = new Task(nextId++, dueTick, type, data);
+        tasks.put(task.id, task);
+        place(task, cursor + 1L);
+        setDirty();
+        return task.id;
+    }
+
+    public static void cancel(MinecraftServer server, long id) {
+        if (id <= 0L) return;
+
+        DeadlineScheduler scheduler = get(server);
+        Task task = scheduler.tasks.remove(id);
+        if (task == null) return;
+
+        // The slot entry is skipped when it comes up.
+        task.cancelled = true;
+        scheduler.setDirty();
+    }
+
+    public static CompoundTag positionData(ServerLevel level, BlockPos pos) {
+        CompoundTag data = new CompoundTag();
+        data.putString("Dim", level.dimension().location().toString());
+        data.putLong("Pos", pos.asLong());
+        return data;
+    }
+
+    @Nullable
+    public static ServerLevel level(MinecraftServer server, CompoundTag data) {
+        ResourceLocation id = ResourceLocation.tryParse(data.getString("Dim"));
+        if (id == null) return null;
+        return server.getLevel(ResourceKey.create(Registries.DIMENSION, id));
+    }
+
+    public static BlockPos pos(CompoundTag data) {
+        return BlockPos.of(data.getLong("Pos"));
+    }
+
+    // ---------- Wheel ----------
+
+    // Base is the first tick not fired yet. The wheel is the one holding the highest digit where
+    // due and base differ, so the task's slot comes up before that wheel wraps around.
+    private void place(Task task, long base) {
+        long due = Math.max(task.dueTick, base);
+        long diff = due ^ base;
+        int wheel = diff == 0L ? 0 : (63 - Long.numberOfLeadingZeros(diff)) / SLOT_BITS;
+        if (wheel >= WHEELS) {
+            overflow.add(task);
+            return;
+        }
+
+        int slot = (int) (due >>> (SLOT_BITS * wheel)) & SLOT_MASK;
+        List<Task> bucket = wheels[wheel][slot];
+        if (bucket == null) {
+            bucket = new ArrayList<>(2);
+            wheels[wheel][slot] = bucket;
+        }
+        bucket.add(task);
+    }
+
+    private void advance(MinecraftServer server, long now) {
+        if (now <= cursor) return;
+        if (now - cursor > SLOTS) {
+            // Fresh data or a jump in game time: re-place everything around the new time.
+            rebuild(now - 1L);
+        }
+
+        while (cursor < now) {
+            long tick = cursor + 1L;
+            cursor = tick;
+            cascade(tick);
+
+            int slot = (int) tick & SLOT_MASK;
+            List<Task> due = wheels[0][slot];
+            if (due == null) continue;
+
+            wheels[0][slot] = null;
+            for (Task task : due) {
+                if (task.cancelled) continue;
+
+                tasks.remove(task.id);
+                setDirty();
+                Handler handler = HANDLERS.get(task.type);
+                if (handler == null) {
+                    UniverseGate.LOGGER.warn("Dropping scheduled task of unknown type {}", task.type);
+                    continue;
+                }
+                handler.run(server, task.data);
+            }
+        }
+    }
+
+    // Moves the upper-wheel slots that start at this tick down, highest wheel first. Runs once the
+    // cursor is on this tick, so tasks due now land in the level-0 slot fired right after.
+    private void cascade(long tick) {
+        if ((tick & ((1L << (SLOT_BITS * WHEELS)) - 1L)) == 0L && !overflow.isEmpty()) {
+            List<Task> far = new ArrayList<>(overflow);
+            overflow.clear();
+            far.forEach(task -> placeLive(task, tick));
+        }
+        for (int wheel = WHEELS - 1; wheel >= 1; wheel--) {
+            if ((tick & ((1L << (SLOT_BITS * wheel)) - 1L)) != 0L) continue;
+
+            int slot = (int) (tick >>> (SLOT_BITS * wheel)) & SLOT_MASK;
+            List<Task> bucket = wheels[wheel][slot];
+            if (bucket == null) continue;
+
+            wheels[wheel][slot] = null;
+            bucket.forEach(task -> placeLive(task, tick));
+        }
+    }
+
+    private void placeLive(Task task, long base) {
+        if (!task.cancelled) place(task, base);
+    }
+
+    private void rebuild(long newCursor) {
+        for (List<Task>[] wheel : wheels) {
+            Arrays.fill(wheel, null);
+        }
+        overflow.clear();
+        cursor = newCursor;
+        for (Task task : tasks.values()) {
+            place(task, cursor + 1L);
+        }
+    }
+
+    // ---------- NBT ----------
+
+    @Override
+    public CompoundTag save(CompoundTag tag, HolderLookup.Provider registries) {
+        ListTag list = new ListTag();
+        for (Task task : tasks.values()) {
+            CompoundTag entry = new CompoundTag();
+            entry.putLong("Id", task.id);
+            entry.putLong("Due", task.dueTick);
+            entry.putString("Type", task.type);
+            entry.put("Data", task.data);
+            list.add(entry);
+        }
+        tag.put("Tasks", list);
+        tag.putLong("Cursor", cursor);
+        tag.putLong("NextId", nextId);
+        return tag;
+    }
+
+    public static DeadlineScheduler load(CompoundTag tag, HolderLookup.Provider registries) {
+        DeadlineScheduler scheduler = new DeadlineScheduler();
+        scheduler.nextId = Math.max(1L, tag.getLong("NextId"));
+        ListTag list = tag.getList("Tasks", Tag.TAG_COMPOUND);
+        for (int i = 0; i < list.size(); i++) {
+            CompoundTag entry = list.getCompound(i);
+            Task task = new Task(entry.getLong("Id"), entry.getLong("Due"), entry.getString("Type"), entry.getCompound("Data"));
+            scheduler.tasks.put(task.id, task);
+            scheduler.nextId = Math.max(scheduler.nextId, task.id + 1L);
+        }
+        scheduler.rebuild(tag.contains("Cursor") ? tag.getLong("Cursor") : -1L);
+        return scheduler;
+    }
+}
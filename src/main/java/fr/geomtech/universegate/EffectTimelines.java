@@ -0,0 +1,57 @@
+package fr.geomtech.universegate;
+
+import fr.geomtech.universegate.net.EffectTimelinePayload;
+import net.fabricmc.fabric.api.networking.v1.PlayerLookup;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+
+/**
+ * Long particle animations played by the client from a single payload: effect id, origin,
+ * orientation, start tick and seed. The client derives every particle of every tick from these,
+ * so the server sends one packet per event instead of particle bursts each tick. Running effects
+ * are sent again every second for players who start tracking the chunk midway.
+ */
+public final class EffectTimelines {
+
+    public static final int PORTAL_OPENING = 0;
+    public static final int FIELD_COLLAPSE = 1;
+    public static final int FIELD_COLLAPSE_UNSTABLE = 2;
+    public static final int MOB_CLONING = 3;
+    public static final int METEOROLOGICAL_BEAM = 4;
+
+    public static final int RESEND_INTERVAL_TICKS = 20;
+    // Same range as ServerLevel.sendParticles without the force flag.
+    public static final double VIEW_DISTANCE = 32.0D;
+
+    private EffectTimelines() {}
+
+    public static void play(ServerLevel level, int effect, BlockPos origin, Direction orientation, long startTick, int durationTicks) {
+        send(level, new EffectTimelinePayload(effect, origin.immutable(), orientation, startTick, durationTicks, seed(origin, startTick)));
+    }
+
+    // Called every tick while the effect runs; only sends on its start tick and every resend interval.
+    public static void refresh(ServerLevel level, int effect, BlockPos origin, Direction orientation, long startTick, int durationTicks) {
+        long elapsed = level.getGameTime() - startTick;
+        if (elapsed < 0L || elapsed >= durationTicks || elapsed % RESEND_INTERVAL_TICKS != 0L) return;
+
+        play(level, effect, origin, orientation, startTick, durationTicks);
+    }
+
+    public static void stop(ServerLevel level, int effect, BlockPos origin) {
+        send(level, new EffectTimelinePayload(effect, origin.immutable(), Direction.UP, level.getGameTime(), 0, 0L));
+    }
+
+    private static void send(ServerLevel level, EffectTimelinePayload payload) {
+        for (ServerPlayer player : PlayerLookup.tracking(level, payload.origin())) {
+            ServerPlayNetworking.send(player, payload);
+        }
+    }
+
+    // Stable for a given run, so a resent payload replays the same particles.
+    private static long seed(BlockPos origin, long startTick) {
+        return origin.asLong() ^ (startTick * 0x9E3779B97F4A7C15L);
+    }
+}
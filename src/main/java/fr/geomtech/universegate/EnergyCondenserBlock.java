@@ -2,12 +2,9 @@ package fr.geomtech.universegate;
 
 import com.mojang.serialization.MapCodec;
 import net.minecraft.core.BlockPos;
-import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.BaseEntityBlock;
 import net.minecraft.world.level.block.RenderShape;
 import net.minecraft.world.level.block.entity.BlockEntity;
-import net.minecraft.world.level.block.entity.BlockEntityTicker;
-import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
 import org.jetbrains.annotations.Nullable;
 import java.util.List;
@@ -41,15 +38,6 @@ public class EnergyCondenserBlock extends BaseEntityBlock {
         return RenderShape.MODEL;
     }
 
-    @Override
-    public @Nullable <T extends BlockEntity> BlockEntityTicker<T> getTicker(Level level,
-                                                                             BlockState state,
-                                                                             BlockEntityType<T> type) {
-        if (level.isClientSide) return null;
-        return createTickerHelper(type, ModBlockEntities.ENERGY_CONDENSER,
-                (lvl, pos, blockState, be) -> be.serverTick());
-    }
-
     @Override
     public List<ItemStack> getDrops(BlockState state, LootParams.Builder builder) {
         List<ItemStack> drops = super.getDrops(state, builder);
@@ -3,15 +3,12 @@ package fr.geomtech.universegate;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
-import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 
 public class EnergyCondenserBlockEntity extends BlockEntity {
 
     public static final int CAPACITY = 20000;
-    private static final int SOLAR_TICK_INTERVAL = 20;
-    private static final int ENERGY_PER_PANEL_PER_INTERVAL = 60;
 
     private int storedEnergy = 0;
 
@@ -19,28 +16,6 @@ public class EnergyCondenserBlockEntity extends BlockEntity {
         super(ModBlockEntities.ENERGY_CONDENSER, pos, state);
     }
 
-    public void serverTick() {
-        if (!(level instanceof ServerLevel serverLevel)) return;
-        if (serverLevel.getGameTime() % SOLAR_TICK_INTERVAL != 0L) return;
-
-        EnergyNetworkHelper.CondenserNetwork network = EnergyNetworkHelper.scanCondenserNetwork(serverLevel, worldPosition);
-        if (network.condensers().isEmpty() || !network.condensers().contains(worldPosition)) return;
-
-        BlockPos leader = EnergyNetworkHelper.findNetworkLeader(network.condensers());
-        if (leader == null || !leader.equals(worldPosition)) return;
-
-        int activePanels = 0;
-        for (BlockPos panelPos : network.solarPanels()) {
-            if (EnergyNetworkHelper.isSolarPanelGenerating(serverLevel, panelPos)) {
-                activePanels++;
-            }
-        }
-        if (activePanels <= 0) return;
-
-        int generated = activePanels * ENERGY_PER_PANEL_PER_INTERVAL;
-        EnergyNetworkHelper.distributeEnergy(serverLevel, network.condensers(), generated);
-    }
-
     public int getStoredEnergy() {
         return storedEnergy;
     }
@@ -0,0 +1,786 @@
+package fr.geomtech.universegate;
+
+import com.mojang.brigadier.context.CommandContext;
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.booleans.BooleanConsumer;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2BooleanOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerBlockEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.Heightmap;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Per-level index of energy conduit networks. Each connected component of ENERGY_CONDUIT is
+ * scanned once, then kept up to date as conduits and attached machines are placed or broken.
+ *
+ * <p>Grids have no size cap. Each conduit costs one entry in the level index (a long key and a
+ * reference) plus one long in its grid's set, around 30 to 55 bytes depending on the tables'
+ * fill, so a 100k conduit grid holds about 4 MB. Placing a conduit only touches its neighbors,
+ * or relabels the smaller grids when it joins several. Breaking one walks the pieces it leaves
+ * behind in parallel and stops once only the largest is still growing, so the cost follows the
+ * smaller pieces. {@code /universegate energy_grid stats} reports the live numbers.
+ *
+ * <p>A scan never loads chunks: it stops at unloaded ones and the grid is marked as cut there.
+ * When one of those chunks loads, the grid is dropped from the index and scanned again on its next
+ * lookup.
+ */
+public final class EnergyGridManager {
+
+    public static final int SOLAR_TICK_INTERVAL = 20;
+    public static final int ENERGY_PER_PANEL_PER_INTERVAL = 60;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final Predicate<BlockState> IS_CONDUIT = state -> state.is(ModBlocks.ENERGY_CONDUIT);
+    private static final Map<ResourceKey<Level>, EnergyGridManager> MANAGERS = new HashMap<>();
+
+    private final ServerLevel level;
+    private final Long2ObjectOpenHashMap<Grid> gridByConduit = new Long2ObjectOpenHashMap<>();
+    // Grids whose scan stopped at an unloaded chunk, by chunk.
+    private final Long2ObjectOpenHashMap<ReferenceOpenHashSet<Grid>> cutGrids = new Long2ObjectOpenHashMap<>();
+    // Keyed by the set of grids (grids compare by identity), so the order they were found in does not matter.
+    private final Map<Set<Grid>, Settlement> pendingSettlements = new LinkedHashMap<>();
+    private final LongOpenHashSet loadedCondensers = new LongOpenHashSet();
+    private final Long2BooleanOpenHashMap panelExposure = new Long2BooleanOpenHashMap();
+    private final Long2ObjectOpenHashMap<LongArrayList> exposedPanelsByColumn = new Long2ObjectOpenHashMap<>();
+    private long daylightCheckedAt = Long.MIN_VALUE;
+    private boolean daylight = false;
+    private long conduitUpdates = 0L;
+    private long conduitUpdateNanos = 0L;
+    private long slowestConduitUpdateNanos = 0L;
+
+    private EnergyGridManager(ServerLevel level) {
+        this.level = level;
+    }
+
+    public static void register() {
+        ServerWorldEvents.UNLOAD.register((server, world) -> MANAGERS.remove(world.dimension()));
+        ServerBlockEntityEvents.BLOCK_ENTITY_LOAD.register((blockEntity, world) -> {
+            if (blockEntity instanceof EnergyCondenserBlockEntity) {
+                get(world).loadedCondensers.add(blockEntity.getBlockPos().asLong());
+            }
+        });
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) -> {
+            EnergyGridManager manager = MANAGERS.get(world.dimension());
+            if (manager != null && manager.level == world) {
+                manager.onChunkLoaded(chunk.getPos().toLong());
+            }
+        });
+        ServerBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register((blockEntity, world) -> {
+            EnergyGridManager manager = MANAGERS.get(world.dimension());
+            if (blockEntity instanceof EnergyCondenserBlockEntity && manager != null) {
+                manager.loadedCondensers.remove(blockEntity.getBlockPos().asLong());
+            }
+        });
+
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> dispatcher.register(
+                Commands.literal("universegate")
+                        // Every mod command checks its own permission: Brigadier keeps the requirement of
+                        // whichever registration created the shared root.
+                        .then(Commands.literal("energy_grid")
+                                .requires(source -> source.hasPermission(2))
+                                .then(Commands.literal("stats").executes(EnergyGridManager::statsCommand)))
+        ));
+    }
+
+    private static int statsCommand(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        EnergyGridManager manager = MANAGERS.get(source.getLevel().dimension());
+        if (manager == null || manager.gridByConduit.isEmpty()) {
+            source.sendSuccess(() -> Component.literal("Aucun reseau d'energie indexe dans cette dimension."), false);
+            return 0;
+        }
+
+        Set<Grid> grids = Collections.newSetFromMap(new IdentityHashMap<>());
+        int largest = 0;
+        long gridBytes = 0L;
+        for (Grid grid : manager.gridByConduit.values()) {
+            if (grids.add(grid)) {
+                largest = Math.max(largest, grid.conduitCount());
+                gridBytes += (long) HashCommon.arraySize(grid.conduitCount(), Hash.DEFAULT_LOAD_FACTOR) * Long.BYTES;
+            }
+        }
+        // Index: one long key and one compressed reference per slot.
+        long indexBytes = (long) HashCommon.arraySize(manager.gridByConduit.size(), Hash.DEFAULT_LOAD_FACTOR) * (Long.BYTES + 4);
+        long totalKb = (indexBytes + gridBytes) / 1024L;
+        long updates = manager.conduitUpdates;
+        long averageMicros = updates == 0L ? 0L : manager.conduitUpdateNanos / updates / 1000L;
+        long slowestMicros = manager.slowestConduitUpdateNanos / 1000L;
+        int gridCount = grids.size();
+        int conduitCount = manager.gridByConduit.size();
+        int largestGrid = largest;
+
+        source.sendSuccess(() -> Component.literal(
+                gridCount + " reseaux, " + conduitCount + " conduits (plus grand : " + largestGrid + "), ~"
+                        + totalKb + " Ko. Mises a jour de conduits : " + updates
+                        + ", moyenne " + averageMicros + " us, pire " + slowestMicros + " us."
+        ), false);
+        return gridCount;
+    }
+
+    public static EnergyGridManager get(ServerLevel level) {
+        EnergyGridManager manager = MANAGERS.get(level.dimension());
+        if (manager == null || manager.level != level) {
+            manager = new EnergyGridManager(level);
+            MANAGERS.put(level.dimension(), manager);
+        }
+        return manager;
+    }
+
+    public enum Endpoint {
+        CONDENSER,
+        SOLAR_PANEL,
+        PARABOLA,
+        ZPC_INTERFACE,
+        MOB_CLONER;
+
+        @Nullable
+        static Endpoint classify(BlockState state, Direction directionFromConduit) {
+            if (state.is(ModBlocks.ENERGY_CONDENSER)) return CONDENSER;
+            if (state.is(ModBlocks.PARABOLA_BLOCK)) return PARABOLA;
+            if (state.is(ModBlocks.ZPC_INTERFACE_CONTROLLER)) return ZPC_INTERFACE;
+            if (state.is(ModBlocks.MOB_CLONER)) return MOB_CLONER;
+            if (state.is(ModBlocks.SOLAR_PANEL)
+                    && state.hasProperty(SolarPanelBlock.FACING)
+                    && SolarPanelBlock.canConnectConduit(state, directionFromConduit)) {
+                return SOLAR_PANEL;
+            }
+            return null;
+        }
+
+        static boolean isEndpointBlock(BlockState state) {
+            return state.is(ModBlocks.ENERGY_CONDENSER)
+                    || state.is(ModBlocks.PARABOLA_BLOCK)
+                    || state.is(ModBlocks.ZPC_INTERFACE_CONTROLLER)
+                    || state.is(ModBlocks.MOB_CLONER)
+                    || state.is(ModBlocks.SOLAR_PANEL);
+        }
+    }
+
+    public static final class Grid {
+        private final LongOpenHashSet conduits = new LongOpenHashSet();
+        // Unloaded chunks the grid may continue into.
+        private final LongOpenHashSet cutChunks = new LongOpenHashSet();
+        private final EnumMap<Endpoint, Set<BlockPos>> members = new EnumMap<>(Endpoint.class);
+        private final EnumMap<Endpoint, Set<BlockPos>> memberViews = new EnumMap<>(Endpoint.class);
+        private int exposedPanels = -1;
+
+        private Grid() {
+            for (Endpoint endpoint : Endpoint.values()) {
+                Set<BlockPos> set = new HashSet<>();
+                members.put(endpoint, set);
+                memberViews.put(endpoint, Collections.unmodifiableSet(set));
+            }
+        }
+
+        public Set<BlockPos> members(Endpoint endpoint) {
+            return memberViews.get(endpoint);
+        }
+
+        public int conduitCount() {
+            return conduits.size();
+        }
+
+        public boolean containsConduit(BlockPos pos) {
+            return conduits.contains(pos.asLong());
+        }
+
+        private void addEndpoint(BlockPos pos, BlockState state, Direction directionFromConduit) {
+            Endpoint endpoint = Endpoint.classify(state, directionFromConduit);
+            if (endpoint != null && members.get(endpoint).add(pos.immutable()) && endpoint == Endpoint.SOLAR_PANEL) {
+                exposedPanels = -1;
+            }
+        }
+
+        private void removeEndpoint(BlockPos pos) {
+            for (Endpoint endpoint : Endpoint.values()) {
+                if (members.get(endpoint).remove(pos) && endpoint == Endpoint.SOLAR_PANEL) {
+                    exposedPanels = -1;
+                }
+            }
+        }
+
+        private void absorb(Grid other) {
+            conduits.addAll(other.conduits);
+            for (Endpoint endpoint : Endpoint.values()) {
+                members.get(endpoint).addAll(other.members.get(endpoint));
+            }
+            exposedPanels = -1;
+        }
+    }
+
+    public record Production(BlockPos pos, int amount, IntConsumer onAccepted) {}
+
+    public record Demand(BlockPos pos, int amount, BooleanConsumer onSettled) {}
+
+    // Requests posted during a tick against the same set of grids, resolved together at the end of the tick.
+    public static final class Settlement {
+        private final List<Grid> grids;
+        private final List<Production> productions = new ArrayList<>();
+        private final List<Demand> demands = new ArrayList<>();
+
+        private Settlement(List<Grid> grids) {
+            this.grids = grids;
+        }
+
+        public List<Grid> grids() {
+            return grids;
+        }
+
+        public List<Production> productions() {
+            return productions;
+        }
+
+        public List<Demand> demands() {
+            return demands;
+        }
+    }
+
+    public void postProduction(List<Grid> grids, Production production) {
+        pendingSettlements.computeIfAbsent(Set.copyOf(grids), k -> new Settlement(grids)).productions.add(production);
+    }
+
+    public void postDemand(List<Grid> grids, Demand demand) {
+        pendingSettlements.computeIfAbsent(Set.copyOf(grids), k -> new Settlement(grids)).demands.add(demand);
+    }
+
+    public static void tickWorld(ServerLevel level) {
+        EnergyGridManager manager = MANAGERS.get(level.dimension());
+        if (manager == null || manager.level != level) return;
+
+        if (level.getGameTime() % SOLAR_TICK_INTERVAL == 0L) {
+            manager.tickSolar();
+        }
+        if (manager.pendingSettlements.isEmpty()) return;
+
+        // Callbacks may post new requests: those are settled on the next tick.
+        List<Settlement> settlements = new ArrayList<>(manager.pendingSettlements.values());
+        manager.pendingSettlements.clear();
+        for (Settlement settlement : settlements) {
+            EnergyNetworkHelper.settle(level, settlement);
+        }
+    }
+
+    // Solar output belongs to the grid: each grid with a condenser in a ticking chunk generates once.
+    private void tickSolar() {
+        if (loadedCondensers.isEmpty() || !isSolarDaylight()) return;
+
+        Set<Grid> ticked = Collections.newSetFromMap(new IdentityHashMap<>());
+        BlockPos.MutableBlockPos condenserPos = new BlockPos.MutableBlockPos();
+        LongIterator iterator = loadedCondensers.iterator();
+        while (iterator.hasNext()) {
+            condenserPos.set(iterator.nextLong());
+            if (!level.shouldTickBlocksAt(condenserPos)) continue;
+
+            for (Direction direction : DIRECTIONS) {
+                Grid grid = gridAt(condenserPos.relative(direction));
+                if (grid != null && ticked.add(grid)) {
+                    generateSolar(grid);
+                }
+            }
+        }
+    }
+
+    private void generateSolar(Grid grid) {
+        Set<BlockPos> condensers = grid.members(Endpoint.CONDENSER);
+        Set<BlockPos> panels = grid.members(Endpoint.SOLAR_PANEL);
+        if (condensers.isEmpty() || panels.isEmpty()) return;
+
+        int activePanels = exposedPanelCount(grid);
+        if (activePanels <= 0) return;
+
+        // Solar output has no buffer: whatever the grid cannot store is lost.
+        BlockPos leader = EnergyNetworkHelper.findNetworkLeader(condensers);
+        postProduction(List.of(grid), new Production(leader, activePanels * ENERGY_PER_PANEL_PER_INTERVAL, accepted -> {}));
+    }
+
+    // ---------- Solar exposure ----------
+
+    // Day and thunder are global: checked once per tick for the whole level, not per panel.
+    public boolean isSolarDaylight() {
+        long now = level.getGameTime();
+        if (daylightCheckedAt != now) {
+            daylightCheckedAt = now;
+            daylight = level.dimensionType().hasSkyLight() && level.isDay() && !level.isThundering();
+        }
+        return daylight;
+    }
+
+    public int activePanelCount(List<Grid> grids) {
+        if (!isSolarDaylight()) return 0;
+
+        int active = 0;
+        for (Grid grid : grids) {
+            active += exposedPanelCount(grid);
+        }
+        return active;
+    }
+
+    private int exposedPanelCount(Grid grid) {
+        if (grid.exposedPanels < 0) {
+            int exposed = 0;
+            for (BlockPos panelPos : grid.members(Endpoint.SOLAR_PANEL)) {
+                if (isPanelExposed(panelPos)) {
+                    exposed++;
+                }
+            }
+            grid.exposedPanels = exposed;
+        }
+        return grid.exposedPanels;
+    }
+
+    // Sky exposure is cached per panel and only dropped when a block changes above it in its column.
+    public boolean isPanelExposed(BlockPos panelPos) {
+        long key = panelPos.asLong();
+        if (panelExposure.containsKey(key)) {
+            return panelExposure.get(key);
+        }
+
+        boolean exposed = computePanelExposure(panelPos);
+        panelExposure.put(key, exposed);
+        LongArrayList column = exposedPanelsByColumn.computeIfAbsent(
+                ChunkPos.asLong(panelPos.getX(), panelPos.getZ()), k -> new LongArrayList(1));
+        if (!column.contains(key)) {
+            column.add(key);
+        }
+        return exposed;
+    }
+
+    private boolean computePanelExposure(BlockPos panelPos) {
+        BlockState panelState = level.getBlockState(panelPos);
+        if (!panelState.is(ModBlocks.SOLAR_PANEL)) return false;
+        if (!panelState.hasProperty(SolarPanelBlock.PART)
+                || panelState.getValue(SolarPanelBlock.PART) != SolarPanelBlock.PanelPart.BASE) {
+            return false;
+        }
+        if (!level.dimensionType().hasSkyLight()) return false;
+        // The heightmap is updated with the block itself, unlike sky light which is propagated later.
+        return level.getHeight(Heightmap.Types.WORLD_SURFACE, panelPos.getX(), panelPos.getZ()) <= panelPos.getY() + 4;
+    }
+
+    private void onColumnChanged(BlockPos pos) {
+        if (exposedPanelsByColumn.isEmpty()) return;
+
+        LongArrayList column = exposedPanelsByColumn.get(ChunkPos.asLong(pos.getX(), pos.getZ()));
+        if (column == null) return;
+
+        for (int i = 0; i < column.size(); i++) {
+            long panelKey = column.getLong(i);
+            // Only blocks at or above the sampled sky position (panel + 4) can shade the panel.
+            if (pos.getY() >= BlockPos.getY(panelKey) + 4) {
+                invalidatePanel(panelKey);
+            }
+        }
+    }
+
+    private void forgetPanel(BlockPos panelPos) {
+        long key = panelPos.asLong();
+        long columnKey = ChunkPos.asLong(panelPos.getX(), panelPos.getZ());
+        LongArrayList column = exposedPanelsByColumn.get(columnKey);
+        if (column != null) {
+            column.rem(key);
+            if (column.isEmpty()) {
+                exposedPanelsByColumn.remove(columnKey);
+            }
+        }
+        invalidatePanel(key);
+    }
+
+    private void invalidatePanel(long panelKey) {
+        panelExposure.remove(panelKey);
+        BlockPos panelPos = BlockPos.of(panelKey);
+        for (Direction direction : DIRECTIONS) {
+            Grid grid = gridByConduit.get(panelPos.relative(direction).asLong());
+            if (grid != null) {
+                grid.exposedPanels = -1;
+            }
+        }
+    }
+
+    @Nullable
+    public Grid gridAt(BlockPos conduitPos) {
+        Grid grid = gridByConduit.get(conduitPos.asLong());
+        if (grid != null) return grid;
+        if (!level.getBlockState(conduitPos).is(ModBlocks.ENERGY_CONDUIT)) return null;
+        return build(conduitPos);
+    }
+
+    public List<Grid> gridsFor(Collection<BlockPos> startConduits) {
+        List<Grid> grids = new ArrayList<>(1);
+        for (BlockPos start : startConduits) {
+            if (containsConduit(grids, start)) continue;
+            Grid grid = gridAt(start);
+            if (grid != null) {
+                grids.add(grid);
+            }
+        }
+        return grids;
+    }
+
+    private static boolean containsConduit(List<Grid> grids, BlockPos pos) {
+        for (Grid grid : grids) {
+            if (grid.containsConduit(pos)) return true;
+        }
+        return false;
+    }
+
+    private Grid build(BlockPos start) {
+        Grid grid = new Grid();
+        try (ConduitTraversal traversal = ConduitTraversal.acquire(IS_CONDUIT).stopAtUnloadedChunks()) {
+            traversal.seedConduit(level, start);
+            traversal.run(level, Integer.MAX_VALUE, (lvl, pos, state, direction) -> {
+                grid.addEndpoint(pos, state, direction);
+                return false;
+            });
+            grid.conduits.addAll(traversal.visited());
+            markCut(grid, traversal.unloadedChunks());
+        }
+
+        LongIterator iterator = grid.conduits.iterator();
+        while (iterator.hasNext()) {
+            gridByConduit.put(iterator.nextLong(), grid);
+        }
+        return grid;
+    }
+
+    private void dissolve(Grid grid) {
+        LongIterator iterator = grid.conduits.iterator();
+        while (iterator.hasNext()) {
+            gridByConduit.remove(iterator.nextLong(), grid);
+        }
+        unmarkCut(grid);
+    }
+
+    private void markCut(Grid grid, LongOpenHashSet chunks) {
+        LongIterator iterator = chunks.iterator();
+        while (iterator.hasNext()) {
+            long chunk = iterator.nextLong();
+            grid.cutChunks.add(chunk);
+            cutGrids.computeIfAbsent(chunk, k -> new ReferenceOpenHashSet<>()).add(grid);
+        }
+    }
+
+    private void unmarkCut(Grid grid) {
+        LongIterator iterator = grid.cutChunks.iterator();
+        while (iterator.hasNext()) {
+            long chunk = iterator.nextLong();
+            ReferenceOpenHashSet<Grid> grids = cutGrids.get(chunk);
+            if (grids != null && grids.remove(grid) && grids.isEmpty()) {
+                cutGrids.remove(chunk);
+            }
+        }
+        grid.cutChunks.clear();
+    }
+
+    // The grids cut at this chunk may continue into it: they are scanned again on their next lookup.
+    private void onChunkLoaded(long chunk) {
+        ReferenceOpenHashSet<Grid> grids = cutGrids.remove(chunk);
+        if (grids == null) return;
+
+        for (Grid grid : new ArrayList<>(grids)) {
+            dissolve(grid);
+        }
+    }
+
+    // ---------- Block updates ----------
+
+    public static void onBlockStateChange(ServerLevel level, BlockPos pos, BlockState oldState, BlockState newState) {
+        if (oldState == newState) return;
+
+        EnergyGridManager manager = MANAGERS.get(level.dimension());
+        if (manager == null || manager.level != level) return;
+
+        manager.onColumnChanged(pos);
+        if (oldState.is(ModBlocks.SOLAR_PANEL) || newState.is(ModBlocks.SOLAR_PANEL)) {
+            manager.forgetPanel(pos.immutable());
+        }
+
+        boolean wasConduit = oldState.is(ModBlocks.ENERGY_CONDUIT);
+        boolean isConduit = newState.is(ModBlocks.ENERGY_CONDUIT);
+        if (wasConduit && isConduit) return;
+        if (!wasConduit && !isConduit && !isEndpointChange(oldState, newState)) return;
+        if (manager.gridByConduit.isEmpty()) return;
+
+        BlockPos immutablePos = pos.immutable();
+        long start = System.nanoTime();
+        if (wasConduit) {
+            manager.onConduitRemoved(immutablePos);
+        }
+        if (isConduit) {
+            manager.onConduitPlaced(immutablePos);
+        } else {
+            manager.onEndpointChanged(immutablePos, newState);
+        }
+        if (wasConduit || isConduit) {
+            long elapsed = System.nanoTime() - start;
+            manager.conduitUpdates++;
+            manager.conduitUpdateNanos += elapsed;
+            manager.slowestConduitUpdateNanos = Math.max(manager.slowestConduitUpdateNanos, elapsed);
+        }
+    }
+
+    private static boolean isEndpointChange(BlockState oldState, BlockState newState) {
+        boolean oldEndpoint = Endpoint.isEndpointBlock(oldState);
+        boolean newEndpoint = Endpoint.isEndpointBlock(newState);
+        if (!oldEndpoint && !newEndpoint) return false;
+        if (oldState.getBlock() != newState.getBlock()) return true;
+        // Solar panels can change their socket (FACING/PART) without changing block.
+        return newState.is(ModBlocks.SOLAR_PANEL);
+    }
+
+    private void onConduitRemoved(BlockPos pos) {
+        long key = pos.asLong();
+        Grid grid = gridByConduit.remove(key);
+        if (grid == null) return;
+        grid.conduits.remove(key);
+
+        LongArrayList sides = new LongArrayList(DIRECTIONS.length);
+        for (Direction direction : DIRECTIONS) {
+            long neighbor = BlockPos.offset(key, direction);
+            if (grid.conduits.contains(neighbor)) {
+                sides.add(neighbor);
+            }
+        }
+
+        // The world is already updated: the split is read from the index, not from block states.
+        if (sides.size() > 1) {
+            for (LongOpenHashSet fragment : detachedFragments(grid.conduits, sides)) {
+                splitOff(grid, fragment);
+            }
+        }
+
+        for (Direction direction : DIRECTIONS) {
+            refreshEndpoint(grid, pos.relative(direction));
+        }
+    }
+
+    // Walks from every side of a broken conduit at once, one node per side in turn, until a single
+    // side is still growing. The sides that ran dry are the pieces to split off; the growing one
+    // (or the largest, when all of them finished) keeps the grid.
+    private static List<LongOpenHashSet> detachedFragments(LongOpenHashSet conduits, LongArrayList sides) {
+        int count = sides.size();
+        Long2IntOpenHashMap owner = new Long2IntOpenHashMap();
+        owner.defaultReturnValue(-1);
+        LongArrayFIFOQueue[] frontiers = new LongArrayFIFOQueue[count];
+        int[] parent = new int[count];
+        for (int i = 0; i < count; i++) {
+            parent[i] = i;
+            frontiers[i] = new LongArrayFIFOQueue();
+            frontiers[i].enqueue(sides.getLong(i));
+            owner.put(sides.getLong(i), i);
+        }
+
+        int growing = count;
+        while (growing > 1) {
+            for (int i = 0; i < count; i++) {
+                if (frontiers[i].isEmpty()) continue;
+                long current = frontiers[i].dequeueLong();
+                for (Direction direction : DIRECTIONS) {
+                    long next = BlockPos.offset(current, direction);
+                    if (!conduits.contains(next)) continue;
+                    int other = owner.putIfAbsent(next, i);
+                    if (other < 0) {
+                        frontiers[i].enqueue(next);
+                    } else {
+                        union(parent, i, other);
+                    }
+                }
+            }
+            growing = growingGroups(frontiers, parent);
+        }
+
+        Int2ObjectOpenHashMap<LongOpenHashSet> groups = new Int2ObjectOpenHashMap<>();
+        for (Long2IntMap.Entry entry : owner.long2IntEntrySet()) {
+            groups.computeIfAbsent(find(parent, entry.getIntValue()), k -> new LongOpenHashSet())
+                    .add(entry.getLongKey());
+        }
+
+        int kept = -1;
+        for (int i = 0; i < count; i++) {
+            if (!frontiers[i].isEmpty()) {
+                kept = find(parent, i);
+            }
+        }
+        if (kept < 0) {
+            int largest = -1;
+            for (Int2ObjectMap.Entry<LongOpenHashSet> entry : groups.int2ObjectEntrySet()) {
+                if (entry.getValue().size() > largest) {
+                    largest = entry.getValue().size();
+                    kept = entry.getIntKey();
+                }
+            }
+        }
+
+        groups.remove(kept);
+        return new ArrayList<>(groups.values());
+    }
+
+    private static int growingGroups(LongArrayFIFOQueue[] frontiers, int[] parent) {
+        boolean[] growing = new boolean[frontiers.length];
+        int count = 0;
+        for (int i = 0; i < frontiers.length; i++) {
+            if (frontiers[i].isEmpty()) continue;
+            int root = find(parent, i);
+            if (!growing[root]) {
+                growing[root] = true;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[rootB] = rootA;
+        }
+    }
+
+    private void splitOff(Grid grid, LongOpenHashSet fragment) {
+        Grid piece = new Grid();
+        // Either side may be the one reaching into the cut chunks.
+        markCut(piece, grid.cutChunks);
+        BlockPos.MutableBlockPos conduitPos = new BlockPos.MutableBlockPos();
+        BlockPos.MutableBlockPos neighborPos = new BlockPos.MutableBlockPos();
+        LongIterator iterator = fragment.iterator();
+        while (iterator.hasNext()) {
+            long key = iterator.nextLong();
+            grid.conduits.remove(key);
+            piece.conduits.add(key);
+            gridByConduit.put(key, piece);
+        }
+
+        iterator = fragment.iterator();
+        while (iterator.hasNext()) {
+            conduitPos.set(iterator.nextLong());
+            for (Direction direction : DIRECTIONS) {
+                neighborPos.setWithOffset(conduitPos, direction);
+                BlockState neighborState = level.getBlockState(neighborPos);
+                if (neighborState.is(ModBlocks.ENERGY_CONDUIT) || !Endpoint.isEndpointBlock(neighborState)) continue;
+                piece.addEndpoint(neighborPos, neighborState, direction);
+                refreshEndpoint(grid, neighborPos);
+            }
+        }
+    }
+
+    // Re-attaches an endpoint to the grid from the conduits of that grid still touching it.
+    private void refreshEndpoint(Grid grid, BlockPos endpointPos) {
+        grid.removeEndpoint(endpointPos);
+        BlockState state = level.getBlockState(endpointPos);
+        if (!Endpoint.isEndpointBlock(state)) return;
+
+        long key = endpointPos.asLong();
+        for (Direction direction : DIRECTIONS) {
+            if (grid.conduits.contains(BlockPos.offset(key, direction))) {
+                grid.addEndpoint(endpointPos, state, direction.getOpposite());
+            }
+        }
+    }
+
+    private void onConduitPlaced(BlockPos pos) {
+        List<Grid> neighbors = new ArrayList<>(2);
+        boolean unindexedNeighbor = false;
+        for (Direction direction : DIRECTIONS) {
+            BlockPos neighborPos = pos.relative(direction);
+            Grid grid = gridByConduit.get(neighborPos.asLong());
+            if (grid != null) {
+                if (!neighbors.contains(grid)) neighbors.add(grid);
+            } else if (level.getBlockState(neighborPos).is(ModBlocks.ENERGY_CONDUIT)) {
+                unindexedNeighbor = true;
+            }
+        }
+
+        if (neighbors.isEmpty()) return;
+        if (unindexedNeighbor) {
+            for (Grid grid : neighbors) {
+                dissolve(grid);
+            }
+            return;
+        }
+
+        Grid target = neighbors.get(0);
+        for (Grid grid : neighbors) {
+            if (grid.conduitCount() > target.conduitCount()) target = grid;
+        }
+        for (Grid grid : neighbors) {
+            if (grid == target) continue;
+            target.absorb(grid);
+            markCut(target, grid.cutChunks);
+            unmarkCut(grid);
+            LongIterator iterator = grid.conduits.iterator();
+            while (iterator.hasNext()) {
+                gridByConduit.put(iterator.nextLong(), target);
+            }
+        }
+
+        target.removeEndpoint(pos);
+        target.conduits.add(pos.asLong());
+        gridByConduit.put(pos.asLong(), target);
+
+        for (Direction direction : DIRECTIONS) {
+            BlockPos neighborPos = pos.relative(direction);
+            BlockState neighborState = level.getBlockState(neighborPos);
+            if (!neighborState.is(ModBlocks.ENERGY_CONDUIT)) {
+                target.addEndpoint(neighborPos, neighborState, direction);
+            }
+        }
+    }
+
+    private void onEndpointChanged(BlockPos pos, BlockState newState) {
+        for (Direction direction : DIRECTIONS) {
+            Grid grid = gridByConduit.get(pos.relative(direction).asLong());
+            if (grid != null) {
+                grid.removeEndpoint(pos);
+            }
+        }
+        for (Direction direction : DIRECTIONS) {
+            Grid grid = gridByConduit.get(pos.relative(direction).asLong());
+            if (grid != null) {
+                grid.addEndpoint(pos, newState, direction.getOpposite());
+            }
+        }
+    }
+}
@@ -1,18 +1,20 @@
 package fr.geomtech.universegate;
 
+import it.unimi.dsi.fastutil.booleans.BooleanConsumer;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.IntConsumer;
 
 public final class EnergyNetworkHelper {
 
@@ -24,7 +26,6 @@ public final class EnergyNetworkHelper {
     public static final int PORTAL_ACTIVE_ENERGY_COST_PER_SECOND = 120;
     public static final int PORTAL_UNSTABLE_COST_BONUS_PERCENT = 50;
 
-    private static final int MAX_CONDUIT_SEARCH = 8192;
     private static final Comparator<BlockPos> POS_COMPARATOR = (a, b) -> {
         int cmp = Integer.compare(a.getX(), b.getX());
         if (cmp != 0) return cmp;
@@ -57,18 +58,16 @@ public final class EnergyNetworkHelper {
         Set<BlockPos> startConduits = new HashSet<>();
         collectAdjacentConduits(level, condenserPos, startConduits);
 
-        Set<BlockPos> condensers = new HashSet<>();
-        if (level.getBlockState(condenserPos).is(ModBlocks.ENERGY_CONDENSER)) {
-            condensers.add(condenserPos.immutable());
-        }
-
         if (startConduits.isEmpty()) {
+            Set<BlockPos> condensers = level.getBlockState(condenserPos).is(ModBlocks.ENERGY_CONDENSER)
+                    ? Set.of(condenserPos.immutable())
+                    : Set.of();
             return new CondenserNetwork(condensers, Set.of(), Set.of(), Set.of());
         }
 
+        // The condenser touches the start conduits, so the grid already lists it.
         ConduitScanResult scan = scanConduits(level, startConduits);
-        condensers.addAll(scan.condensers());
-        return new CondenserNetwork(condensers, scan.solarPanels(), scan.parabolas(), scan.zpcInterfaces());
+        return new CondenserNetwork(scan.condensers(), scan.solarPanels(), scan.parabolas(), scan.zpcInterfaces());
     }
 
     public static BlockPos findNetworkLeader(Set<BlockPos> condensers) {
@@ -76,16 +75,8 @@ public final class EnergyNetworkHelper {
     }
 
     public static boolean isSolarPanelGenerating(ServerLevel level, BlockPos panelPos) {
-        BlockState panelState = level.getBlockState(panelPos);
-        if (!panelState.is(ModBlocks.SOLAR_PANEL)) return false;
-        if (!panelState.hasProperty(SolarPanelBlock.PART)
-                || panelState.getValue(SolarPanelBlock.PART) != SolarPanelBlock.PanelPart.BASE) {
-            return false;
-        }
-        if (!level.dimensionType().hasSkyLight()) return false;
-        if (!level.isDay()) return false;
-        if (level.isThundering()) return false;
-        return level.canSeeSky(panelPos.above(4));
+        EnergyGridManager manager = EnergyGridManager.get(level);
+        return manager.isSolarDaylight() && manager.isPanelExposed(panelPos);
     }
 
     public static EnergyNetworkSnapshot getNetworkSnapshot(ServerLevel level, BlockPos condenserPos) {
@@ -123,12 +114,10 @@ public final class EnergyNetworkHelper {
             reservoirs++;
         }
 
-        int activePanels = 0;
-        for (BlockPos panelPos : network.solarPanels()) {
-            if (isSolarPanelGenerating(level, panelPos)) {
-                activePanels++;
-            }
-        }
+        Set<BlockPos> startConduits = new HashSet<>();
+        collectAdjacentConduits(level, condenserPos, startConduits);
+        EnergyGridManager manager = EnergyGridManager.get(level);
+        int activePanels = manager.activePanelCount(manager.gridsFor(startConduits));
 
         return new EnergyNetworkSnapshot(
                 stored,
@@ -212,6 +201,12 @@ public final class EnergyNetworkHelper {
         long totalStored = getTotalEnergyStored(condensers, zpcInterfaces);
         if (totalStored < amount) return false;
 
+        sortForExtraction(condensers, zpcInterfaces);
+        return drainSources(condensers, zpcInterfaces, amount) >= amount;
+    }
+
+    private static void sortForExtraction(List<EnergyCondenserBlockEntity> condensers,
+                                          List<ZpcInterfaceControllerBlockEntity> zpcInterfaces) {
         zpcInterfaces.sort(Comparator
                 .comparingLong(ZpcInterfaceControllerBlockEntity::getStoredEnergy)
                 .reversed()
@@ -221,7 +216,11 @@ public final class EnergyNetworkHelper {
                 .comparingInt(EnergyCondenserBlockEntity::getStoredEnergy)
                 .reversed()
                 .thenComparing(be -> be.getBlockPos(), POS_COMPARATOR));
+    }
 
+    private static int drainSources(List<EnergyCondenserBlockEntity> condensers,
+                                    List<ZpcInterfaceControllerBlockEntity> zpcInterfaces,
+                                    int amount) {
         int remaining = amount;
 
         for (ZpcInterfaceControllerBlockEntity controller : zpcInterfaces) {
@@ -234,7 +233,7 @@ public final class EnergyNetworkHelper {
             remaining -= condenser.extractEnergy(remaining);
         }
 
-        return remaining <= 0;
+        return amount - remaining;
     }
 
     public static int distributeEnergy(ServerLevel level, Set<BlockPos> condenserPositions, int amount) {
@@ -243,10 +242,17 @@ public final class EnergyNetworkHelper {
         List<EnergyCondenserBlockEntity> condensers = getCondensers(level, condenserPositions);
         if (condensers.isEmpty()) return 0;
 
+        sortForInsertion(condensers);
+        return fillCondensers(condensers, amount);
+    }
+
+    private static void sortForInsertion(List<EnergyCondenserBlockEntity> condensers) {
         condensers.sort(Comparator
                 .comparingInt(EnergyCondenserBlockEntity::getStoredEnergy)
                 .thenComparing(be -> be.getBlockPos(), POS_COMPARATOR));
+    }
 
+    private static int fillCondensers(List<EnergyCondenserBlockEntity> condensers, int amount) {
         int remaining = amount;
         for (EnergyCondenserBlockEntity condenser : condensers) {
             if (remaining <= 0) break;
@@ -255,6 +261,107 @@ public final class EnergyNetworkHelper {
         return amount - remaining;
     }
 
+    // ---------- Batched settlement ----------
+
+    public static void postEnergyProduction(ServerLevel level, BlockPos node, int amount, IntConsumer onAccepted) {
+        if (amount <= 0) {
+            onAccepted.accept(0);
+            return;
+        }
+
+        Set<BlockPos> startConduits = new HashSet<>();
+        collectAdjacentConduits(level, node, startConduits);
+        EnergyGridManager manager = EnergyGridManager.get(level);
+        List<EnergyGridManager.Grid> grids = manager.gridsFor(startConduits);
+        if (grids.isEmpty()) {
+            onAccepted.accept(0);
+            return;
+        }
+        manager.postProduction(grids, new EnergyGridManager.Production(node.immutable(), amount, onAccepted));
+    }
+
+    public static void postEnergyDemand(ServerLevel level, BlockPos node, int amount, BooleanConsumer onSettled) {
+        Set<BlockPos> startConduits = new HashSet<>();
+        collectAdjacentConduits(level, node, startConduits);
+        postDemand(level, startConduits, node, amount, onSettled);
+    }
+
+    public static void postPortalEnergyDemand(ServerLevel level, BlockPos corePos, int amount, BooleanConsumer onSettled) {
+        postDemand(level, collectPortalStartConduits(level, corePos), corePos, amount, onSettled);
+    }
+
+    private static void postDemand(ServerLevel level,
+                                   Set<BlockPos> startConduits,
+                                   BlockPos node,
+                                   int amount,
+                                   BooleanConsumer onSettled) {
+        if (amount <= 0) {
+            onSettled.accept(true);
+            return;
+        }
+
+        EnergyGridManager manager = EnergyGridManager.get(level);
+        List<EnergyGridManager.Grid> grids = manager.gridsFor(startConduits);
+        if (grids.isEmpty()) {
+            onSettled.accept(false);
+            return;
+        }
+        manager.postDemand(grids, new EnergyGridManager.Demand(node.immutable(), amount, onSettled));
+    }
+
+    static void settle(ServerLevel level, EnergyGridManager.Settlement settlement) {
+        List<EnergyGridManager.Grid> grids = settlement.grids();
+        List<EnergyCondenserBlockEntity> condensers =
+                getCondensers(level, gridMembers(grids, EnergyGridManager.Endpoint.CONDENSER));
+
+        List<EnergyGridManager.Production> productions = settlement.productions();
+        int[] credited = new int[productions.size()];
+        if (!productions.isEmpty()) {
+            productions.sort(Comparator.comparing(EnergyGridManager.Production::pos, POS_COMPARATOR));
+
+            long offered = 0L;
+            for (EnergyGridManager.Production production : productions) {
+                offered += production.amount();
+            }
+
+            sortForInsertion(condensers);
+            int accepted = fillCondensers(condensers, (int) Math.min(Integer.MAX_VALUE, offered));
+            for (int i = 0; i < productions.size(); i++) {
+                credited[i] = Math.min(productions.get(i).amount(), accepted);
+                accepted -= credited[i];
+            }
+        }
+
+        List<EnergyGridManager.Demand> demands = settlement.demands();
+        boolean[] satisfied = new boolean[demands.size()];
+        if (!demands.isEmpty()) {
+            demands.sort(Comparator.comparing(EnergyGridManager.Demand::pos, POS_COMPARATOR));
+
+            List<ZpcInterfaceControllerBlockEntity> zpcInterfaces =
+                    getZpcInterfaces(level, gridMembers(grids, EnergyGridManager.Endpoint.ZPC_INTERFACE));
+            zpcInterfaces.removeIf(controller -> !controller.canSupplyEnergy() || controller.getStoredEnergy() <= 0L);
+            sortForExtraction(condensers, zpcInterfaces);
+
+            long available = getTotalEnergyStored(condensers, zpcInterfaces);
+            for (int i = 0; i < demands.size(); i++) {
+                int amount = demands.get(i).amount();
+                if (available < amount) continue;
+
+                int drained = drainSources(condensers, zpcInterfaces, amount);
+                available -= drained;
+                satisfied[i] = drained >= amount;
+            }
+        }
+
+        // Callbacks run once every request of the batch has been resolved.
+        for (int i = 0; i < productions.size(); i++) {
+            productions.get(i).onAccepted().accept(credited[i]);
+        }
+        for (int i = 0; i < demands.size(); i++) {
+            demands.get(i).onSettled().accept(satisfied[i]);
+        }
+    }
+
     public static int getAvailableEnergyForPortal(ServerLevel level, BlockPos corePos) {
         List<EnergyCondenserBlockEntity> condensers = getPortalCondensers(level, corePos);
         List<ZpcInterfaceControllerBlockEntity> zpcInterfaces = getPortalZpcInterfaces(level, corePos);
@@ -367,12 +474,20 @@ public final class EnergyNetworkHelper {
     }
 
     private static Set<BlockPos> collectPortalStartConduits(ServerLevel level, BlockPos corePos) {
+        if (level.getBlockEntity(corePos) instanceof PortalCoreBlockEntity core) {
+            return core.getEnergyPorts(level);
+        }
+        return collectPortalStartConduits(level, corePos, PortalFrameDetector.detect(level, corePos));
+    }
+
+    static Set<BlockPos> collectPortalStartConduits(ServerLevel level,
+                                                    BlockPos corePos,
+                                                    Optional<PortalFrameDetector.FrameMatch> frameMatch) {
         Set<BlockPos> starts = new HashSet<>();
         collectAdjacentConduits(level, corePos, starts);
 
-        var frameMatch = PortalFrameDetector.find(level, corePos);
         if (frameMatch.isPresent()) {
-            for (BlockPos framePos : PortalFrameHelper.collectFrame(frameMatch.get(), corePos)) {
+            for (BlockPos framePos : frameMatch.get().frame()) {
                 collectAdjacentConduits(level, framePos, starts);
             }
         }
@@ -380,40 +495,8 @@ public final class EnergyNetworkHelper {
     }
 
     private static Set<BlockPos> scanMobCloners(ServerLevel level, Set<BlockPos> startConduits) {
-        Set<BlockPos> visited = new HashSet<>();
-        ArrayDeque<BlockPos> queue = new ArrayDeque<>();
-        Set<BlockPos> mobCloners = new HashSet<>();
-
-        for (BlockPos start : startConduits) {
-            if (level.getBlockState(start).is(ModBlocks.ENERGY_CONDUIT) && visited.add(start.immutable())) {
-                queue.add(start.immutable());
-            }
-        }
-
-        int searched = 0;
-        while (!queue.isEmpty()) {
-            BlockPos conduitPos = queue.removeFirst();
-            searched++;
-            if (searched > MAX_CONDUIT_SEARCH) {
-                break;
-            }
-
-            for (Direction direction : Direction.values()) {
-                BlockPos neighborPos = conduitPos.relative(direction);
-                BlockState neighborState = level.getBlockState(neighborPos);
-
-                if (neighborState.is(ModBlocks.ENERGY_CONDUIT) && visited.add(neighborPos.immutable())) {
-                    queue.addLast(neighborPos.immutable());
-                    continue;
-                }
-
-                if (neighborState.is(ModBlocks.MOB_CLONER)) {
-                    mobCloners.add(neighborPos.immutable());
-                }
-            }
-        }
-
-        return mobCloners;
+        List<EnergyGridManager.Grid> grids = EnergyGridManager.get(level).gridsFor(startConduits);
+        return gridMembers(grids, EnergyGridManager.Endpoint.MOB_CLONER);
     }
 
     private static List<EnergyCondenserBlockEntity> getCondensers(ServerLevel level, Set<BlockPos> positions) {
@@ -468,64 +551,24 @@ public final class EnergyNetworkHelper {
                                      Set<BlockPos> zpcInterfaces) {}
 
     private static ConduitScanResult scanConduits(ServerLevel level, Set<BlockPos> startConduits) {
-        Set<BlockPos> visited = new HashSet<>();
-        ArrayDeque<BlockPos> queue = new ArrayDeque<>();
-        Set<BlockPos> condensers = new HashSet<>();
-        Set<BlockPos> solarPanels = new HashSet<>();
-        Set<BlockPos> parabolas = new HashSet<>();
-        Set<BlockPos> zpcInterfaces = new HashSet<>();
-
-        for (BlockPos start : startConduits) {
-            if (level.getBlockState(start).is(ModBlocks.ENERGY_CONDUIT) && visited.add(start.immutable())) {
-                queue.add(start.immutable());
-            }
-        }
+        List<EnergyGridManager.Grid> grids = EnergyGridManager.get(level).gridsFor(startConduits);
+        return new ConduitScanResult(
+                gridMembers(grids, EnergyGridManager.Endpoint.CONDENSER),
+                gridMembers(grids, EnergyGridManager.Endpoint.SOLAR_PANEL),
+                gridMembers(grids, EnergyGridManager.Endpoint.PARABOLA),
+                gridMembers(grids, EnergyGridManager.Endpoint.ZPC_INTERFACE)
+        );
+    }
 
-        int searched = 0;
-        while (!queue.isEmpty()) {
-            BlockPos conduitPos = queue.removeFirst();
-            searched++;
-            if (searched > MAX_CONDUIT_SEARCH) {
-                break;
-            }
+    private static Set<BlockPos> gridMembers(List<EnergyGridManager.Grid> grids, EnergyGridManager.Endpoint endpoint) {
+        if (grids.isEmpty()) return Set.of();
+        if (grids.size() == 1) return grids.get(0).members(endpoint);
 
-            for (Direction direction : Direction.values()) {
-                BlockPos neighborPos = conduitPos.relative(direction);
-                BlockState neighborState = level.getBlockState(neighborPos);
-
-                if (neighborState.is(ModBlocks.ENERGY_CONDUIT) && visited.add(neighborPos.immutable())) {
-                    queue.addLast(neighborPos.immutable());
-                    continue;
-                }
-
-                if (neighborState.is(ModBlocks.ENERGY_CONDENSER)) {
-                    condensers.add(neighborPos.immutable());
-                    continue;
-                }
-                
-                if (neighborState.is(ModBlocks.PARABOLA_BLOCK)) {
-                    parabolas.add(neighborPos.immutable());
-                    continue;
-                }
-
-                if (neighborState.is(ModBlocks.ZPC_INTERFACE_CONTROLLER)) {
-                    zpcInterfaces.add(neighborPos.immutable());
-                    continue;
-                }
-
-                if (isSolarPanelSocketConnection(neighborState, direction)) {
-                    solarPanels.add(neighborPos.immutable());
-                }
-            }
+        Set<BlockPos> members = new HashSet<>();
+        for (EnergyGridManager.Grid grid : grids) {
+            members.addAll(grid.members(endpoint));
         }
-
-        return new ConduitScanResult(condensers, solarPanels, parabolas, zpcInterfaces);
-    }
-
-    private static boolean isSolarPanelSocketConnection(BlockState panelState, Direction directionFromConduitToPanel) {
-        if (!panelState.is(ModBlocks.SOLAR_PANEL)) return false;
-        if (!panelState.hasProperty(SolarPanelBlock.FACING)) return false;
-        return SolarPanelBlock.canConnectConduit(panelState, directionFromConduitToPanel);
+        return members;
     }
 
     private static void collectAdjacentConduits(ServerLevel level, BlockPos origin, Set<BlockPos> output) {
@@ -58,8 +58,8 @@ public final class EngineerExpeditionManager {
 
         CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> dispatcher.register(
                 Commands.literal("universegate")
-                        .requires(source -> source.getEntity() instanceof ServerPlayer && source.hasPermission(2))
                         .then(Commands.literal("engineer_event")
+                                .requires(source -> source.getEntity() instanceof ServerPlayer && source.hasPermission(2))
                                 .then(Commands.literal("force").executes(EngineerExpeditionManager::forceEventCommand))
                                 .then(Commands.literal("status").executes(EngineerExpeditionManager::statusCommand))
                                 .then(Commands.literal("cancel").executes(EngineerExpeditionManager::cancelCommand))
@@ -569,47 +569,20 @@ public final class EngineerExpeditionManager {
                                                                                    PortalRegistrySavedData registry,
                                                                                    UUID sourcePortalId,
                                                                                    RandomSource random) {
-        List<PortalRegistrySavedData.PortalEntry> candidates = new ArrayList<>();
-
-        for (PortalRegistrySavedData.PortalEntry entry : registry.listAll()) {
-            if (entry.id().equals(sourcePortalId)) continue;
-            if (entry.dim().equals(UniverseGateDimensions.RIFT)) continue;
+        return registry.pickRandom(random, entry -> {
+            if (entry.id().equals(sourcePortalId)) return false;
+            if (entry.dim().equals(UniverseGateDimensions.RIFT)) return false;
             ServerLevel level = server.getLevel(entry.dim());
-            if (level == null) continue;
+            if (level == null) return false;
             level.getChunk(entry.pos());
 
             PortalCoreBlockEntity core = getCore(level, entry.pos());
-            if (core == null || core.isActiveOrOpening()) continue;
-
-            candidates.add(entry);
-        }
-
-        if (candidates.isEmpty()) return null;
-        return candidates.get(random.nextInt(candidates.size()));
+            return core != null && !core.isActiveOrOpening();
+        });
     }
 
     private static @Nullable BlockPos findKeyboardNear(ServerLevel level, BlockPos center, int radiusXZ, int radiusY) {
-        BlockPos best = null;
-        double bestDist = Double.MAX_VALUE;
-
-        for (int dy = -radiusY; dy <= radiusY; dy++) {
-            for (int dx = -radiusXZ; dx <= radiusXZ; dx++) {
-                for (int dz = -radiusXZ; dz <= radiusXZ; dz++) {
-                    BlockPos p = center.offset(dx, dy, dz);
-                    var state = level.getBlockState(p);
-                    if (!state.is(ModBlocks.PORTAL_KEYBOARD) && !state.is(ModBlocks.PORTAL_NATURAL_KEYBOARD)) {
-                        continue;
-                    }
-                    double dist = p.distSqr(center);
-                    if (dist < bestDist) {
-                        bestDist = dist;
-                        best = p;
-                    }
-                }
-            }
-        }
-
-        return best;
+        return PortalStructureTracker.findKeyboardNear(level, center, radiusXZ, radiusY);
     }
 
     private static boolean tryOpenPortalForExpedition(ServerLevel level,
@@ -2,6 +2,7 @@ package fr.geomtech.universegate;
 
 import net.fabricmc.fabric.api.screenhandler.v1.ExtendedScreenHandlerFactory;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.nbt.CompoundTag;
@@ -184,7 +185,8 @@ public class MeteorologicalControllerBlockEntity extends BlockEntity implements
             if (beamTick % BEAM_LOOP_INTERVAL_TICKS == 0) {
                 ModSounds.playBeamAt(level, catalystPos);
             }
-            spawnBeamParticles(level, catalystPos);
+            EffectTimelines.refresh(level, EffectTimelines.METEOROLOGICAL_BEAM, catalystPos, Direction.UP,
+                    level.getGameTime() - beamTick, BEAM_TICKS);
         }
 
         if (!finaleTriggered && sequenceTicks == BEAM_END_TICKS) {
@@ -296,39 +298,11 @@ public class MeteorologicalControllerBlockEntity extends BlockEntity implements
         }
     }
 
-    private void spawnBeamParticles(ServerLevel level, BlockPos catalystPos) {
-        if (sequenceTicks % 2 != 0) return;
-
-        double centerX = catalystPos.getX() + 0.5;
-        double centerZ = catalystPos.getZ() + 0.5;
-        int startY = catalystPos.getY() + 1;
-        int maxY = Math.min(level.getMaxBuildHeight() - 1, startY + 110);
-
-        for (int y = startY; y <= maxY; y += 2) {
-            level.sendParticles(ParticleTypes.END_ROD, centerX, y + 0.1D, centerZ, 1, 0.02D, 0.0D, 0.02D, 0.0D);
-        }
-
-        for (int y = startY; y <= maxY; y += 5) {
-            spawnParticleRing(level, centerX, y + 0.2D, centerZ, 2.4D, 14);
-        }
-    }
-
-    private void spawnParticleRing(ServerLevel level,
-                                   double centerX,
-                                   double y,
-                                   double centerZ,
-                                   double radius,
-                                   int points) {
-        for (int i = 0; i < points; i++) {
-            double angle = (Math.PI * 2.0D * i / points) + level.random.nextDouble() * 0.08D;
-            double x = centerX + Math.cos(angle) * radius;
-            double z = centerZ + Math.sin(angle) * radius;
-            level.sendParticles(ParticleTypes.END_ROD, x, y, z, 1, 0.0D, 0.0D, 0.0D, 0.0D);
-        }
-    }
-
     private void resetSequence() {
         stopWeatherSounds();
+        if (activeCatalystPos != null && level instanceof ServerLevel serverLevel) {
+            EffectTimelines.stop(serverLevel, EffectTimelines.METEOROLOGICAL_BEAM, activeCatalystPos);
+        }
         sequenceActive = false;
         finaleTriggered = false;
         sequenceTicks = 0;
@@ -2,6 +2,7 @@ package fr.geomtech.universegate;
 
 import net.fabricmc.fabric.api.screenhandler.v1.ExtendedScreenHandlerFactory;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.core.NonNullList;
@@ -229,6 +230,9 @@ public class MobClonerControllerBlockEntity extends net.minecraft.world.level.bl
         if (level == null) return;
         Containers.dropContents(level, worldPosition, this);
         inventory.clear();
+        if (chargeActive && pendingClonerPos != null && level instanceof ServerLevel serverLevel) {
+            EffectTimelines.stop(serverLevel, EffectTimelines.MOB_CLONING, pendingClonerPos);
+        }
         chargeActive = false;
         chargeTicks = 0;
         clearPendingCloneData();
@@ -246,7 +250,8 @@ public class MobClonerControllerBlockEntity extends net.minecraft.world.level.bl
 
         if (chargeActive) {
             if (pendingClonerPos != null) {
-                emitCloningParticles(serverLevel, pendingClonerPos, chargeTicks);
+                EffectTimelines.refresh(serverLevel, EffectTimelines.MOB_CLONING, pendingClonerPos, Direction.UP,
+                        serverLevel.getGameTime() - chargeTicks, CHARGE_DURATION_TICKS);
             }
 
             chargeTicks = Math.min(CHARGE_DURATION_TICKS, chargeTicks + 1);
@@ -532,37 +537,6 @@ public class MobClonerControllerBlockEntity extends net.minecraft.world.level.bl
         return maxHealth >= BOSS_HEALTH_THRESHOLD;
     }
 
-    private static void emitCloningParticles(ServerLevel level, BlockPos clonerPos, int currentChargeTicks) {
-        double centerX = clonerPos.getX() + 0.5D;
-        double centerZ = clonerPos.getZ() + 0.5D;
-        float progress = Mth.clamp(currentChargeTicks / (float) CHARGE_DURATION_TICKS, 0.0F, 1.0F);
-
-        int baseCount = 18 + Mth.floor(progress * 26.0F);
-        for (int layer = 0; layer < 3; layer++) {
-            double y = clonerPos.getY() + 1.2D + layer;
-            double spread = 0.52D - layer * 0.06D;
-
-            level.sendParticles(ParticleTypes.PORTAL, centerX, y, centerZ, baseCount + 12, spread, 0.24D, spread, 0.08D);
-            level.sendParticles(ParticleTypes.ENCHANT, centerX, y, centerZ, baseCount + 8, spread, 0.18D, spread, 0.03D);
-            level.sendParticles(ParticleTypes.END_ROD, centerX, y, centerZ, (baseCount / 2) + 8, spread * 0.85D, 0.16D, spread * 0.85D, 0.0D);
-            level.sendParticles(ParticleTypes.GLOW, centerX, y, centerZ, (baseCount / 2) + 6, spread * 0.75D, 0.16D, spread * 0.75D, 0.0D);
-
-            if (((currentChargeTicks + layer) & 1) == 0) {
-                level.sendParticles(ParticleTypes.ELECTRIC_SPARK, centerX, y, centerZ, 8 + Mth.floor(progress * 10.0F), spread * 0.9D, 0.22D, spread * 0.9D, 0.02D);
-            }
-
-            int ringPoints = 14 + Mth.floor(progress * 16.0F);
-            double ringRadius = 0.66D - layer * 0.08D;
-            for (int i = 0; i < ringPoints; i++) {
-                double angle = ((Math.PI * 2.0D) / ringPoints) * i + currentChargeTicks * 0.24D + layer * 0.35D;
-                double px = centerX + Math.cos(angle) * ringRadius;
-                double py = y - 0.22D + (i % 3) * 0.14D;
-                double pz = centerZ + Math.sin(angle) * ringRadius;
-                level.sendParticles(ParticleTypes.END_ROD, px, py, pz, 1, 0.0D, 0.015D, 0.0D, 0.0D);
-            }
-        }
-    }
-
     private static void emitCloneMaterializationBurst(ServerLevel level, BlockPos clonerPos) {
         double centerX = clonerPos.getX() + 0.5D;
         double centerZ = clonerPos.getZ() + 0.5D;
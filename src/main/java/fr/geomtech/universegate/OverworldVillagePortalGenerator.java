@@ -169,13 +169,7 @@ public final class OverworldVillagePortalGenerator {
     }
 
     private static boolean hasAnyOverworldPortal(ServerLevel level) {
-        PortalRegistrySavedData registry = PortalRegistrySavedData.get(level.getServer());
-        for (PortalRegistrySavedData.PortalEntry entry : registry.listAll()) {
-            if (entry.dim().equals(Level.OVERWORLD)) {
-                return true;
-            }
-        }
-        return false;
+        return PortalRegistrySavedData.get(level.getServer()).hasPortalIn(Level.OVERWORLD);
     }
 
     private static BlockPos computeBootstrapProbe(BlockPos spawnPos, long index) {
@@ -193,16 +187,10 @@ public final class OverworldVillagePortalGenerator {
     }
 
     private static boolean hasPortalCoreNear(ServerLevel level, BlockPos center, int radiusXZ) {
-        int radiusSqr = radiusXZ * radiusXZ;
         PortalRegistrySavedData registry = PortalRegistrySavedData.get(level.getServer());
 
-        for (PortalRegistrySavedData.PortalEntry entry : registry.listAll()) {
-            if (!entry.dim().equals(level.dimension())) continue;
-
+        for (PortalRegistrySavedData.PortalEntry entry : registry.listWithin(level.dimension(), center, radiusXZ)) {
             BlockPos portalPos = entry.pos();
-            int dx = portalPos.getX() - center.getX();
-            int dz = portalPos.getZ() - center.getZ();
-            if ((dx * dx) + (dz * dz) > radiusSqr) continue;
             if (!level.hasChunkAt(portalPos)) return true;
 
             if (level.getBlockState(portalPos).is(ModBlocks.PORTAL_CORE)) {
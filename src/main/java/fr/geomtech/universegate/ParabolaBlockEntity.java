@@ -23,12 +23,15 @@ public class ParabolaBlockEntity extends BlockEntity {
         if (level.getGameTime() % 20L != 0L) return;
 
         // Consume 120 energy per interval (assumed 20 ticks based on solar panel interval)
-        boolean nowPowered = EnergyNetworkHelper.consumeEnergyFromNetwork(serverLevel, pos, 120);
-        
-        if (nowPowered != blockEntity.isPowered) {
-            blockEntity.isPowered = nowPowered;
-            blockEntity.setChanged();
-            blockEntity.syncToClient();
+        EnergyNetworkHelper.postEnergyDemand(serverLevel, pos, 120, blockEntity::onEnergySettled);
+    }
+
+    private void onEnergySettled(boolean nowPowered) {
+        if (isRemoved()) return;
+        if (nowPowered != isPowered) {
+            isPowered = nowPowered;
+            setChanged();
+            syncToClient();
         }
     }
 
@@ -0,0 +1,84 @@
+package fr.geomtech.universegate;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.FluidState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the field and frame states of one portal and writes them in a single pass. Blocks are
+ * set without neighbor or shape updates; the chunk holder already sends the client one packet per
+ * touched section at the end of the tick, and only blocks outside the written set are notified,
+ * so field and frame blocks no longer update each other one by one.
+ */
+final class PortalBlockWriter {
+
+    private static final int WRITE_FLAGS = Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE;
+    private static final int NEIGHBOR_UPDATE_LIMIT = 512;
+
+    private final ServerLevel level;
+    private final Long2ObjectLinkedOpenHashMap<BlockState> changes = new Long2ObjectLinkedOpenHashMap<>();
+
+    PortalBlockWriter(ServerLevel level) {
+        this.level = level;
+    }
+
+    ServerLevel level() {
+        return level;
+    }
+
+    void set(BlockPos pos, BlockState state) {
+        changes.put(pos.asLong(), state);
+    }
+
+    boolean contains(BlockPos pos) {
+        return changes.containsKey(pos.asLong());
+    }
+
+    void apply() {
+        if (changes.isEmpty()) return;
+
+        List<BlockPos> written = new ArrayList<>(changes.size());
+        List<BlockState> previous = new ArrayList<>(changes.size());
+        for (Long2ObjectMap.Entry<BlockState> change : changes.long2ObjectEntrySet()) {
+            BlockPos pos = BlockPos.of(change.getLongKey());
+            BlockState old = level.getBlockState(pos);
+            if (old.equals(change.getValue())) continue;
+            if (!level.setBlock(pos, change.getValue(), WRITE_FLAGS)) continue;
+
+            written.add(pos);
+            previous.add(old);
+        }
+
+        BlockPos.MutableBlockPos neighbor = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < written.size(); i++) {
+            BlockPos pos = written.get(i);
+            BlockState state = level.getBlockState(pos);
+
+            // Shape updates inside the structure are skipped, so water needs its own tick.
+            FluidState fluid = state.getFluidState();
+            if (!fluid.isEmpty()) {
+                level.scheduleTick(pos, fluid.getType(), fluid.getType().getTickDelay(level));
+            }
+
+            for (Direction direction : Direction.values()) {
+                neighbor.setWithOffset(pos, direction);
+                if (changes.containsKey(neighbor.asLong())) continue;
+
+                BlockPos neighborPos = neighbor.immutable();
+                level.neighborChanged(neighborPos, previous.get(i).getBlock(), pos);
+                BlockState neighborState = level.getBlockState(neighborPos);
+                BlockState shaped = neighborState.updateShape(direction.getOpposite(), state, level, neighborPos, pos);
+                Block.updateOrDestroy(neighborState, shaped, level, neighborPos, Block.UPDATE_ALL, NEIGHBOR_UPDATE_LIMIT);
+            }
+        }
+        changes.clear();
+    }
+}
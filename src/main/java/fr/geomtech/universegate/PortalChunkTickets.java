@@ -0,0 +1,65 @@
+package fr.geomtech.universegate;
+
+import net.fabricmc.fabric.api.gamerule.v1.GameRuleFactory;
+import net.fabricmc.fabric.api.gamerule.v1.GameRuleRegistry;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.GameRules;
+
+import java.util.Comparator;
+
+/**
+ * Chunk tickets held by portals. Tickets are asynchronous: the chunk system loads or generates the
+ * chunks over the following ticks instead of blocking the caller like {@code getChunk}.
+ */
+public final class PortalChunkTickets {
+
+    // Covers the opening sequence with some slack; the ticket expires on its own.
+    private static final int PREFETCH_TICKS = 20 * 9 + 20 * 5;
+
+    // Same lifetime as the chunk hold after a player passes; an active portal refreshes it.
+    private static final int PORTAL_TICKS = 20 * 15;
+    // Region ticket distances: 2 gives level 31 (entity ticking, like a forceload), 0 gives level 33 (border).
+    private static final int ENTITY_TICKING_DISTANCE = 2;
+    private static final int BORDER_DISTANCE = 0;
+
+    public static final TicketType<ChunkPos> PORTAL_PREFETCH =
+            TicketType.create(UniverseGate.MOD_ID + ":portal_prefetch", Comparator.comparingLong(ChunkPos::toLong), PREFETCH_TICKS);
+    // Keyed by core position, so two cores in one chunk hold separate tickets.
+    public static final TicketType<BlockPos> PORTAL =
+            TicketType.create(UniverseGate.MOD_ID + ":portal", Comparator.comparingLong(BlockPos::asLong), PORTAL_TICKS);
+
+    // Off: portal chunks are only kept loaded (border), entities arriving there wait for a player to tick.
+    public static final GameRules.Key<GameRules.BooleanValue> PORTAL_CHUNKS_ENTITY_TICKING = GameRuleRegistry.register(
+            "universegatePortalChunksEntityTicking",
+            GameRules.Category.UPDATES,
+            GameRuleFactory.createBooleanRule(true)
+    );
+
+    private PortalChunkTickets() {}
+
+    public static void register() {
+        // Loads the class, which registers the game rule.
+    }
+
+    public static int portalTicketDistance(ServerLevel level) {
+        return level.getGameRules().getBoolean(PORTAL_CHUNKS_ENTITY_TICKING) ? ENTITY_TICKING_DISTANCE : BORDER_DISTANCE;
+    }
+
+    // Adding the same ticket again restarts its lifetime.
+    public static void holdPortal(ServerLevel level, BlockPos corePos, int distance) {
+        level.getChunkSource().addRegionTicket(PORTAL, new ChunkPos(corePos), distance, corePos.immutable());
+    }
+
+    public static void releasePortal(ServerLevel level, BlockPos corePos, int distance) {
+        level.getChunkSource().removeRegionTicket(PORTAL, new ChunkPos(corePos), distance, corePos.immutable());
+    }
+
+    // Loads the chunk holding the core and its neighbors, where arrivals and the frame land.
+    public static void prefetchAround(ServerLevel level, BlockPos corePos) {
+        ChunkPos chunkPos = new ChunkPos(corePos);
+        level.getChunkSource().addRegionTicket(PORTAL_PREFETCH, chunkPos, 1, chunkPos);
+    }
+}
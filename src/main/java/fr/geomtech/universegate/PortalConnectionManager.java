@@ -1,20 +1,22 @@
 package fr.geomtech.universegate;
 
+import it.unimi.dsi.fastutil.longs.LongIterator;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
-import net.minecraft.core.particles.ParticleOptions;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.tags.FluidTags;
-import net.minecraft.util.Mth;
 import net.minecraft.util.RandomSource;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.LightningBolt;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -22,14 +24,21 @@ public final class PortalConnectionManager {
 
     private static final long ACTIVE_OPEN_DURATION_TICKS = 20L * 60L; // 1 minute
     private static final long OPENING_DURATION_TICKS = 20L * 9L;
-    private static final long OPENING_BLACKOUT_TICKS = 20L * 2L;
-    private static final double OPENING_PARTICLE_EXPONENT = 4.0D;
-    private static final int OPENING_MAX_PARTICLES_PER_CELL = 7;
+    // How long an opening waits past its end for the destination chunk to load.
+    private static final long TARGET_LOAD_TIMEOUT_TICKS = 20L * 5L;
     private static final int KEYBOARD_RADIUS_XZ = 8;
     private static final int KEYBOARD_RADIUS_Y = 4;
 
     private PortalConnectionManager() {}
 
+    // Bindings are stored as absolute positions: one pointing further away than the keyboard search
+    // radius was copied along with its block (/clone, structure blocks) and belongs to another gate.
+    static boolean isKeyboardInRange(BlockPos keyboardPos, BlockPos corePos) {
+        return Math.abs(keyboardPos.getX() - corePos.getX()) <= KEYBOARD_RADIUS_XZ
+                && Math.abs(keyboardPos.getZ() - corePos.getZ()) <= KEYBOARD_RADIUS_XZ
+                && Math.abs(keyboardPos.getY() - corePos.getY()) <= KEYBOARD_RADIUS_Y;
+    }
+
     /**
      * Ouvre A => B (sens unique) en activant les deux côtés.
      * sourceLevel/sourcePos = core A (origine, où le joueur est)
@@ -77,59 +86,125 @@ public final class PortalConnectionManager {
             return false;
         }
 
-        // Charger chunk du core B
-        targetLevel.getChunk(bEntry.pos());
+        // Le chunk du core B et ses voisins se chargent en arrière-plan pendant la séquence
+        // d’ouverture : B n'est vérifié ici que s'il est déjà chargé, sinon au premier tick où il l'est.
+        PortalChunkTickets.prefetchAround(targetLevel, bEntry.pos());
+        PortalCoreBlockEntity b = null;
+        if (targetLevel.hasChunkAt(bEntry.pos())) {
+            b = resolveTargetCore(reg, targetLevel, bEntry, a.getPortalId());
+            if (b == null) return false;
+        }
+
+        // Vérifier cadre A
+        Optional<PortalFrameDetector.FrameMatch> frameA = PortalFrameDetector.find(sourceLevel, sourceCorePos);
+        if (frameA.isEmpty()) return false;
+
+        UUID connectionId = UUID.randomUUID();
+        long nowA = sourceLevel.getGameTime();
+        long openingCompleteA = nowA + OPENING_DURATION_TICKS;
+
+        a.setOpeningState(connectionId, targetId, nowA, openingCompleteA, riftLightningLink, true, sourceMaintenanceEnergyBypass);
+        a.markAwaitingTarget();
+
+        applyFrameActive(sourceLevel, frameA.get(), sourceCorePos, true, riftLightningLink);
+        EffectTimelines.play(sourceLevel, EffectTimelines.PORTAL_OPENING, sourceCorePos, frameA.get().right(), nowA, (int) OPENING_DURATION_TICKS);
+        setNearbyKeyboardsLit(sourceLevel, sourceCorePos, true);
+        ModSounds.playPortalDialingAt(sourceLevel, sourceCorePos);
+        a.setChanged();
 
+        if (b != null) {
+            attachTarget(sourceLevel, sourceCorePos, a, targetLevel, bEntry.pos(), b);
+        }
+        return a.isOpening();
+    }
+
+    /**
+     * Core B for an opening toward this registry entry, its chunk already loaded. Null when B is
+     * gone, is the source itself, is busy or has no frame; stale registry entries are fixed on the way.
+     */
+    @Nullable
+    private static PortalCoreBlockEntity resolveTargetCore(PortalRegistrySavedData reg,
+                                                           ServerLevel targetLevel,
+                                                           PortalRegistrySavedData.PortalEntry bEntry,
+                                                           UUID sourcePortalId) {
+        UUID targetId = bEntry.id();
         if (!(targetLevel.getBlockEntity(bEntry.pos()) instanceof PortalCoreBlockEntity b)) {
             reg.removePortal(targetId);
-            return false;
+            return null;
         }
-        UUID resolvedTargetId = targetId;
         if (b.getPortalId() == null) {
             b.renamePortal(b.getPortalName());
             if (b.getPortalId() == null) {
                 reg.removePortal(targetId);
-                return false;
+                return null;
             }
         }
         if (!targetId.equals(b.getPortalId())) {
             reg.removePortal(targetId);
             reg.upsertPortal(targetLevel, b.getPortalId(), b.getPortalName(), bEntry.pos(), bEntry.hidden());
-            resolvedTargetId = b.getPortalId();
-        }
-        if (a.getPortalId().equals(resolvedTargetId)) {
-            return false;
         }
+        if (sourcePortalId.equals(b.getPortalId())) return null;
 
         refreshCoreConnectionState(targetLevel, bEntry.pos(), b);
+        if (b.isActiveOrOpening()) return null;
 
-        if (b.isActiveOrOpening()) return false;
+        if (PortalFrameDetector.find(targetLevel, bEntry.pos()).isEmpty()) return null;
+        return b;
+    }
 
-        // Vérifier cadres (A et B)
-        Optional<PortalFrameDetector.FrameMatch> frameA = PortalFrameDetector.find(sourceLevel, sourceCorePos);
-        Optional<PortalFrameDetector.FrameMatch> frameB = PortalFrameDetector.find(targetLevel, bEntry.pos());
-        if (frameA.isEmpty() || frameB.isEmpty()) return false;
+    // B joins A's opening sequence and finishes at the same time, however much of it B missed.
+    private static void attachTarget(ServerLevel sourceLevel,
+                                     BlockPos sourceCorePos,
+                                     PortalCoreBlockEntity a,
+                                     ServerLevel targetLevel,
+                                     BlockPos targetCorePos,
+                                     PortalCoreBlockEntity b) {
+        Optional<PortalFrameDetector.FrameMatch> frameB = PortalFrameDetector.find(targetLevel, targetCorePos);
+        if (frameB.isEmpty()) {
+            forceCloseOneSide(sourceLevel, sourceCorePos);
+            return;
+        }
 
-        UUID connectionId = UUID.randomUUID();
-        long nowA = sourceLevel.getGameTime();
-        long nowB = targetLevel.getGameTime();
-        long openingCompleteA = nowA + OPENING_DURATION_TICKS;
-        long openingCompleteB = nowB + OPENING_DURATION_TICKS;
+        long openingStart = a.getOpeningStartedGameTime();
+        long openingComplete = a.getOpeningCompleteGameTime();
+        b.setOpeningState(a.getConnectionId(), a.getPortalId(), openingStart, openingComplete, a.isRiftLightningLink(), false, false);
+        a.onTargetAttached(b.getPortalId());
 
-        a.setOpeningState(connectionId, b.getPortalId(), nowA, openingCompleteA, riftLightningLink, true, sourceMaintenanceEnergyBypass);
-        b.setOpeningState(connectionId, a.getPortalId(), nowB, openingCompleteB, riftLightningLink, false, false);
+        applyFrameActive(targetLevel, frameB.get(), targetCorePos, true, a.isRiftLightningLink());
+        EffectTimelines.play(targetLevel, EffectTimelines.PORTAL_OPENING, targetCorePos, frameB.get().right(),
+                openingStart, (int) (openingComplete - openingStart));
+        setNearbyKeyboardsLit(targetLevel, targetCorePos, true);
+        ModSounds.playPortalDialingAt(targetLevel, targetCorePos);
+        b.setChanged();
+    }
 
-        setFrameActive(sourceLevel, frameA.get(), sourceCorePos, true, riftLightningLink);
-        setFrameActive(targetLevel, frameB.get(), bEntry.pos(), true, riftLightningLink);
-        setNearbyKeyboardsLit(sourceLevel, sourceCorePos, true);
-        setNearbyKeyboardsLit(targetLevel, bEntry.pos(), true);
+    /**
+     * Joins B to a pending opening once the prefetch ticket has loaded its chunk. Returns false
+     * when the opening was closed because B is no longer a valid target.
+     */
+    private static boolean attachPendingTarget(ServerLevel sourceLevel, BlockPos sourceCorePos, PortalCoreBlockEntity a) {
+        MinecraftServer server = sourceLevel.getServer();
+        PortalRegistrySavedData reg = PortalRegistrySavedData.get(server);
+        PortalRegistrySavedData.PortalEntry bEntry = a.getTargetPortalId() == null ? null : reg.get(a.getTargetPortalId());
+        ServerLevel targetLevel = bEntry == null ? null : server.getLevel(bEntry.dim());
+        if (targetLevel == null) {
+            forceCloseOneSide(sourceLevel, sourceCorePos);
+            return false;
+        }
 
-        ModSounds.playPortalDialingAt(sourceLevel, sourceCorePos);
-        ModSounds.playPortalDialingAt(targetLevel, bEntry.pos());
+        if (!targetLevel.hasChunkAt(bEntry.pos())) {
+            // Restarts the ticket's lifetime, and restores it after a server restart.
+            PortalChunkTickets.prefetchAround(targetLevel, bEntry.pos());
+            return true;
+        }
 
-        a.setChanged();
-        b.setChanged();
-        return true;
+        PortalCoreBlockEntity b = resolveTargetCore(reg, targetLevel, bEntry, a.getPortalId());
+        if (b == null) {
+            forceCloseOneSide(sourceLevel, sourceCorePos);
+            return false;
+        }
+        attachTarget(sourceLevel, sourceCorePos, a, targetLevel, bEntry.pos(), b);
+        return a.isOpening();
     }
 
     private static void refreshCoreConnectionState(ServerLevel level, BlockPos corePos, PortalCoreBlockEntity core) {
@@ -144,6 +219,7 @@ public final class PortalConnectionManager {
 
     static void tickOpeningSequence(ServerLevel level, BlockPos corePos, PortalCoreBlockEntity core) {
         if (!core.isOpening()) return;
+        if (core.isAwaitingTarget() && !attachPendingTarget(level, corePos, core)) return;
 
         long now = level.getGameTime();
         Optional<PortalFrameDetector.FrameMatch> frame = PortalFrameDetector.find(level, corePos);
@@ -152,9 +228,21 @@ public final class PortalConnectionManager {
             return;
         }
 
-        spawnOpeningParticles(level, frame.get(), now, core);
+        long openingStart = core.getOpeningStartedGameTime();
+        long openingEnd = core.getOpeningCompleteGameTime();
+        if (openingEnd <= openingStart) {
+            openingStart = now;
+            openingEnd = now + OPENING_DURATION_TICKS;
+        }
+        // Les particules sont générées côté client à partir de la timeline.
+        EffectTimelines.refresh(level, EffectTimelines.PORTAL_OPENING, corePos, frame.get().right(),
+                openingStart, (int) (openingEnd - openingStart));
+    }
 
-        if (now < core.getOpeningCompleteGameTime()) return;
+    // Called from the core's scheduled deadline once the opening time is reached.
+    static void completeOpening(ServerLevel level, BlockPos corePos, PortalCoreBlockEntity core) {
+        if (!core.isOpening()) return;
+        if (level.getGameTime() < core.getOpeningCompleteGameTime()) return;
 
         finalizeOpening(level, corePos, core);
     }
@@ -182,7 +270,14 @@ public final class PortalConnectionManager {
             return;
         }
 
-        targetLevel.getChunk(targetEntry.pos());
+        if (sourceCore.isAwaitingTarget() && !attachPendingTarget(sourceLevel, sourceCorePos, sourceCore)) return;
+        if (sourceCore.isAwaitingTarget() || !targetLevel.hasChunkAt(targetEntry.pos())) {
+            // Still loading behind the prefetch ticket: the deadline checks again next tick.
+            if (sourceLevel.getGameTime() > sourceCore.getOpeningCompleteGameTime() + TARGET_LOAD_TIMEOUT_TICKS) {
+                forceCloseOneSide(sourceLevel, sourceCorePos);
+            }
+            return;
+        }
         if (!(targetLevel.getBlockEntity(targetEntry.pos()) instanceof PortalCoreBlockEntity targetCore)
                 || !targetCore.isOpening()) {
             forceCloseOneSide(sourceLevel, sourceCorePos);
@@ -210,12 +305,15 @@ public final class PortalConnectionManager {
         boolean unstableA = sourceCore.isRiftLightningLink();
         boolean unstableB = targetCore.isRiftLightningLink();
 
-        if (!placeField(sourceLevel, frameA.get(), unstableA)) {
+        // Champ et cadre de chaque côté sont écrits en une seule passe.
+        PortalBlockWriter writerA = new PortalBlockWriter(sourceLevel);
+        PortalBlockWriter writerB = new PortalBlockWriter(targetLevel);
+        if (!placeField(writerA, frameA.get(), unstableA)) {
             forceCloseOneSide(sourceLevel, sourceCorePos);
             return;
         }
-        if (!placeField(targetLevel, frameB.get(), unstableB)) {
-            removeField(sourceLevel, frameA.get());
+        if (!placeField(writerB, frameB.get(), unstableB)) {
+            // Le champ A n'a pas encore été écrit : il suffit d'abandonner writerA.
             forceCloseOneSide(sourceLevel, sourceCorePos);
             return;
         }
@@ -226,8 +324,10 @@ public final class PortalConnectionManager {
         sourceCore.finalizeOpeningState(untilA, sourceLevel.getGameTime());
         targetCore.finalizeOpeningState(untilB, targetLevel.getGameTime());
 
-        setFrameActive(sourceLevel, frameA.get(), sourceCorePos, true, unstableA);
-        setFrameActive(targetLevel, frameB.get(), targetEntry.pos(), true, unstableB);
+        setFrameActive(writerA, frameA.get(), sourceCorePos, true, unstableA);
+        setFrameActive(writerB, frameB.get(), targetEntry.pos(), true, unstableB);
+        writerA.apply();
+        writerB.apply();
         setNearbyKeyboardsLit(sourceLevel, sourceCorePos, true);
         setNearbyKeyboardsLit(targetLevel, targetEntry.pos(), true);
 
@@ -254,79 +354,16 @@ public final class PortalConnectionManager {
         level.addFreshEntity(lightningBolt);
     }
 
-    private static void spawnOpeningParticles(ServerLevel level,
-                                              PortalFrameDetector.FrameMatch match,
-                                              long now,
-                                              PortalCoreBlockEntity core) {
-        long openingStart = core.getOpeningStartedGameTime();
-        long openingEnd = core.getOpeningCompleteGameTime();
-        if (openingEnd <= openingStart) {
-            openingStart = now;
-            openingEnd = now + OPENING_DURATION_TICKS;
-        }
-
-        long duration = Math.max(1L, openingEnd - openingStart);
-        double progress = Mth.clamp((double) (now - openingStart) / (double) duration, 0.0D, 1.0D);
-        double growth = Math.expm1(progress * OPENING_PARTICLE_EXPONENT) / Math.expm1(OPENING_PARTICLE_EXPONENT);
-
-        int baseCount = (int) Math.floor(growth * OPENING_MAX_PARTICLES_PER_CELL);
-        long blackStart = openingEnd - OPENING_BLACKOUT_TICKS;
-        double blackRatio = now <= blackStart
-                ? 0.0D
-                : Mth.clamp((double) (now - blackStart) / (double) Math.max(1L, OPENING_BLACKOUT_TICKS), 0.0D, 1.0D);
-
-        Direction.Axis axis = match.right() == Direction.EAST ? Direction.Axis.X : Direction.Axis.Z;
-        RandomSource random = level.random;
-
-        for (BlockPos p : match.interior()) {
-            int count = baseCount;
-            if (random.nextDouble() < growth) count++;
-            if (count <= 0) continue;
-
-            int blackCount = blackRatio <= 0.0D ? 0 : (int) Math.round(count * blackRatio);
-            blackCount = Math.min(blackCount, count);
-            int whiteCount = count - blackCount;
-
-            if (whiteCount > 0) {
-                sendOpeningParticles(level, p, axis, ParticleTypes.END_ROD, whiteCount, 0.002D);
-            }
-            if (blackCount > 0) {
-                sendOpeningParticles(level, p, axis, ParticleTypes.SQUID_INK, blackCount, 0.01D);
-            }
-        }
-    }
-
-    private static void sendOpeningParticles(ServerLevel level,
-                                             BlockPos pos,
-                                             Direction.Axis axis,
-                                             ParticleOptions particle,
-                                             int count,
-                                             double speed) {
-        double x = pos.getX() + 0.5;
-        double y = pos.getY() + 0.5;
-        double z = pos.getZ() + 0.5;
-        double xSpread = axis == Direction.Axis.X ? 0.43D : 0.06D;
-        double ySpread = 0.46D;
-        double zSpread = axis == Direction.Axis.X ? 0.06D : 0.43D;
-
-        level.sendParticles(particle, x, y, z, count, xSpread, ySpread, zSpread, speed);
-    }
-
     /** Ferme un portail (un côté) + tente de fermer le target si chargé. */
     public static void forceCloseOneSide(ServerLevel level, BlockPos corePos) {
         if (!(level.getBlockEntity(corePos) instanceof PortalCoreBlockEntity a)) return;
 
         UUID targetId = a.getTargetPortalId();
+        // B never joined: it may belong to another connection and must not be touched.
+        boolean targetAttached = !a.isAwaitingTarget();
 
         // Recalculer frame + retirer champ
-        var match = PortalFrameDetector.find(level, corePos);
-        if (match.isPresent()) {
-            removeField(level, match.get());
-            setFrameActive(level, match.get(), corePos, false, false);
-        } else {
-            removeFieldFallback(level, corePos);
-            setFrameActiveFallback(level, corePos, false, false);
-        }
+        clearPortalBlocks(level, corePos);
         if (a.isActive()) {
             ModSounds.playAt(level, corePos, ModSounds.PORTAL_CLOSING, 1.0F, 1.0F);
         }
@@ -335,7 +372,7 @@ public final class PortalConnectionManager {
         setNearbyKeyboardsLit(level, corePos, false);
 
         // Essayer de fermer l’autre côté (si on peut le charger)
-        if (targetId != null) {
+        if (targetId != null && targetAttached) {
             closeOtherSideIfPossible(level.getServer(), targetId);
         }
     }
@@ -353,14 +390,7 @@ public final class PortalConnectionManager {
 
         if (!(targetLevel.getBlockEntity(entry.pos()) instanceof PortalCoreBlockEntity b)) return;
 
-        var match = PortalFrameDetector.find(targetLevel, entry.pos());
-        if (match.isPresent()) {
-            removeField(targetLevel, match.get());
-            setFrameActive(targetLevel, match.get(), entry.pos(), false, false);
-        } else {
-            removeFieldFallback(targetLevel, entry.pos());
-            setFrameActiveFallback(targetLevel, entry.pos(), false, false);
-        }
+        clearPortalBlocks(targetLevel, entry.pos());
         if (b.isActive()) {
             ModSounds.playAt(targetLevel, entry.pos(), ModSounds.PORTAL_CLOSING, 1.0F, 1.0F);
         }
@@ -371,110 +401,209 @@ public final class PortalConnectionManager {
     }
 
     static void syncActivePortalInstability(ServerLevel level, BlockPos corePos, boolean unstable) {
+        PortalBlockWriter writer = new PortalBlockWriter(level);
         var match = PortalFrameDetector.find(level, corePos);
         if (match.isPresent()) {
-            setFieldInstability(level, match.get(), unstable);
-            setFrameActive(level, match.get(), corePos, true, unstable);
-            return;
+            setFieldInstability(writer, match.get(), unstable);
+            setFrameActive(writer, match.get(), corePos, true, unstable);
+        } else {
+            setFieldInstabilityFallback(writer, corePos, unstable);
+            setFrameActiveFallback(writer, corePos, true, unstable);
         }
+        writer.apply();
+    }
 
-        setFieldInstabilityFallback(level, corePos, unstable);
-        setFrameActiveFallback(level, corePos, true, unstable);
+    // Retire le champ et éteint le cadre en une seule passe.
+    private static void clearPortalBlocks(ServerLevel level, BlockPos corePos) {
+        EffectTimelines.stop(level, EffectTimelines.PORTAL_OPENING, corePos);
+        PortalBlockWriter writer = new PortalBlockWriter(level);
+        var match = PortalFrameDetector.find(level, corePos);
+        if (match.isPresent()) {
+            removeField(writer, match.get(), corePos);
+            setFrameActive(writer, match.get(), corePos, false, false);
+        } else {
+            removeFieldFallback(writer, corePos);
+            setFrameActiveFallback(writer, corePos, false, false);
+        }
+        writer.apply();
+    }
+
+    private static void applyFrameActive(ServerLevel level,
+                                         PortalFrameDetector.FrameMatch match,
+                                         BlockPos corePos,
+                                         boolean active,
+                                         boolean unstable) {
+        PortalBlockWriter writer = new PortalBlockWriter(level);
+        setFrameActive(writer, match, corePos, active, unstable);
+        writer.apply();
     }
 
     public static void syncKeyboardLitFromNearbyCore(ServerLevel level, BlockPos keyboardPos) {
-        boolean lit = hasActiveCoreNear(level, keyboardPos, KEYBOARD_RADIUS_XZ, KEYBOARD_RADIUS_Y);
+        BlockPos corePos = resolveKeyboardCore(level, keyboardPos, true);
+        boolean lit = corePos != null
+                && level.getBlockEntity(corePos) instanceof PortalCoreBlockEntity core
+                && core.isActiveOrOpening();
         setKeyboardLit(level, keyboardPos, lit);
     }
 
     static void setNearbyKeyboardsLit(ServerLevel level, BlockPos corePos, boolean lit) {
-        for (int dy = -KEYBOARD_RADIUS_Y; dy <= KEYBOARD_RADIUS_Y; dy++) {
-            for (int dx = -KEYBOARD_RADIUS_XZ; dx <= KEYBOARD_RADIUS_XZ; dx++) {
-                for (int dz = -KEYBOARD_RADIUS_XZ; dz <= KEYBOARD_RADIUS_XZ; dz++) {
-                    BlockPos p = corePos.offset(dx, dy, dz);
-                    var state = level.getBlockState(p);
-                    if (!isKeyboardBlock(state)) continue;
-                    if (lit) {
-                        setKeyboardLit(level, p, true);
-                    } else {
-                        syncKeyboardLitFromNearbyCore(level, p);
-                    }
-                }
-            }
+        if (!(level.getBlockEntity(corePos) instanceof PortalCoreBlockEntity core)) return;
+
+        for (BlockPos p : boundKeyboards(level, corePos, core, true)) {
+            setKeyboardLit(level, p, lit);
         }
     }
 
     public static void forceCloseFromKeyboard(ServerLevel level, BlockPos keyboardPos) {
-        BlockPos corePos = findActiveCoreNear(level, keyboardPos, KEYBOARD_RADIUS_XZ, KEYBOARD_RADIUS_Y);
+        BlockPos corePos = resolveKeyboardCore(level, keyboardPos, true);
         if (corePos == null) return;
 
         if (!(level.getBlockEntity(corePos) instanceof PortalCoreBlockEntity core)) return;
+        if (!core.isActiveOrOpening()) return;
         if (core.isRiftLightningLink()) return;
         if (!core.isOutboundTravelEnabled()) return;
 
         forceCloseOneSide(level, corePos);
     }
 
-    private static void setKeyboardLit(ServerLevel level, BlockPos keyboardPos, boolean lit) {
-        var state = level.getBlockState(keyboardPos);
-        if (!isKeyboardBlock(state) || !state.hasProperty(BlockStateProperties.LIT)) return;
-        if (state.getValue(BlockStateProperties.LIT) == lit) return;
+    // Core driven by this keyboard: its binding while that core still exists, otherwise the nearest
+    // core, which becomes the new binding. Null when no core is in range.
+    @Nullable
+    public static BlockPos resolveKeyboardCore(ServerLevel level, BlockPos keyboardPos, boolean loadChunks) {
+        PortalKeyboardBlockEntity keyboard = level.getBlockEntity(keyboardPos) instanceof PortalKeyboardBlockEntity k ? k : null;
+        BlockPos bound = keyboard != null ? keyboard.getBoundCore() : null;
+        if (bound != null && !isKeyboardInRange(keyboardPos, bound)) {
+            keyboard.setBoundCore(null);
+            bound = null;
+        }
+        if (bound != null) {
+            // Without chunk loading, trust the binding rather than pull the core's chunk in.
+            if (!loadChunks && !level.hasChunkAt(bound)) return bound;
+            if (level.getBlockEntity(bound) instanceof PortalCoreBlockEntity core) {
+                core.bindKeyboard(keyboardPos);
+                return bound;
+            }
+        }
 
-        level.setBlock(keyboardPos, state.setValue(BlockStateProperties.LIT, lit), 3);
+        BlockPos found = PortalStructureTracker.findCoreNear(level, keyboardPos, KEYBOARD_RADIUS_XZ, KEYBOARD_RADIUS_Y, loadChunks);
+        if (keyboard != null) {
+            keyboard.setBoundCore(found);
+        }
+        if (found != null && level.getBlockEntity(found) instanceof PortalCoreBlockEntity core) {
+            core.bindKeyboard(keyboardPos);
+        }
+        return found;
     }
 
-    private static boolean isKeyboardBlock(BlockState state) {
-        return state.is(ModBlocks.PORTAL_KEYBOARD) || state.is(ModBlocks.PORTAL_NATURAL_KEYBOARD);
+    public static void unbindKeyboard(ServerLevel level, BlockPos keyboardPos) {
+        if (!(level.getBlockEntity(keyboardPos) instanceof PortalKeyboardBlockEntity keyboard)) return;
+
+        BlockPos bound = keyboard.getBoundCore();
+        if (bound != null && level.hasChunkAt(bound)
+                && level.getBlockEntity(bound) instanceof PortalCoreBlockEntity core) {
+            core.unbindKeyboard(keyboardPos);
+        }
+        keyboard.setBoundCore(null);
     }
 
-    private static boolean hasActiveCoreNear(ServerLevel level, BlockPos center, int rXZ, int rY) {
-        return findActiveCoreNear(level, center, rXZ, rY) != null;
+    public static boolean hasBoundNaturalKeyboard(ServerLevel level, BlockPos corePos) {
+        if (!(level.getBlockEntity(corePos) instanceof PortalCoreBlockEntity core)) return false;
+
+        for (BlockPos p : boundKeyboards(level, corePos, core, false)) {
+            if (level.getBlockState(p).is(ModBlocks.PORTAL_NATURAL_KEYBOARD)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private static BlockPos findActiveCoreNear(ServerLevel level, BlockPos center, int rXZ, int rY) {
-        for (int dy = -rY; dy <= rY; dy++) {
-            for (int dx = -rXZ; dx <= rXZ; dx++) {
-                for (int dz = -rXZ; dz <= rXZ; dz++) {
-                    BlockPos p = center.offset(dx, dy, dz);
-                    if (level.getBlockState(p).is(ModBlocks.PORTAL_CORE)
-                            && level.getBlockEntity(p) instanceof PortalCoreBlockEntity core
-                            && core.isActiveOrOpening()) {
-                        return p;
-                    }
+    // Keyboards bound to this core. The first call on a core binds the keyboards around it that have
+    // no live binding yet; entries whose keyboard is gone or bound elsewhere are dropped.
+    private static List<BlockPos> boundKeyboards(ServerLevel level, BlockPos corePos, PortalCoreBlockEntity core, boolean loadChunks) {
+        if (!core.areKeyboardsBound()) {
+            for (BlockPos p : PortalStructureTracker.keyboardsNear(level, corePos, KEYBOARD_RADIUS_XZ, KEYBOARD_RADIUS_Y, loadChunks)) {
+                if (!(level.getBlockEntity(p) instanceof PortalKeyboardBlockEntity keyboard)) continue;
+
+                BlockPos bound = keyboard.getBoundCore();
+                if (bound == null || bound.equals(corePos) || !(level.getBlockEntity(bound) instanceof PortalCoreBlockEntity)) {
+                    keyboard.setBoundCore(corePos);
+                    core.bindKeyboard(p);
+                }
+            }
+            if (loadChunks) {
+                core.markKeyboardsBound();
+            }
+        }
+
+        List<BlockPos> result = new ArrayList<>(core.getBoundKeyboards().size());
+        LongIterator iterator = core.getBoundKeyboards().iterator();
+        while (iterator.hasNext()) {
+            BlockPos p = BlockPos.of(iterator.nextLong());
+            if (!isKeyboardInRange(p, corePos)) {
+                iterator.remove();
+                core.setChanged();
+                continue;
+            }
+            if (!loadChunks && !level.hasChunkAt(p)) continue;
+
+            if (level.getBlockEntity(p) instanceof PortalKeyboardBlockEntity keyboard) {
+                // Placed while its block entity did not exist yet: adopt it.
+                if (keyboard.getBoundCore() == null) {
+                    keyboard.setBoundCore(corePos);
+                }
+                if (corePos.equals(keyboard.getBoundCore())) {
+                    result.add(p);
+                    continue;
                 }
             }
+            iterator.remove();
+            core.setChanged();
         }
-        return null;
+        return result;
+    }
+
+    private static void setKeyboardLit(ServerLevel level, BlockPos keyboardPos, boolean lit) {
+        var state = level.getBlockState(keyboardPos);
+        if (!isKeyboardBlock(state) || !state.hasProperty(BlockStateProperties.LIT)) return;
+        if (state.getValue(BlockStateProperties.LIT) == lit) return;
+
+        level.setBlock(keyboardPos, state.setValue(BlockStateProperties.LIT, lit), 3);
+    }
+
+    private static boolean isKeyboardBlock(BlockState state) {
+        return state.is(ModBlocks.PORTAL_KEYBOARD) || state.is(ModBlocks.PORTAL_NATURAL_KEYBOARD);
     }
 
     // ----------------------------
     // Champ portal (à brancher ensuite)
     // ----------------------------
-    private static boolean placeField(ServerLevel level, PortalFrameDetector.FrameMatch match, boolean unstable) {
+    private static boolean placeField(PortalBlockWriter writer, PortalFrameDetector.FrameMatch match, boolean unstable) {
         var axis = axisFromMatch(match);
         var baseFieldState = ModBlocks.PORTAL_FIELD.defaultBlockState()
                 .setValue(PortalFieldBlock.AXIS, axis)
                 .setValue(PortalFieldBlock.UNSTABLE, unstable);
         for (BlockPos p : match.interior()) {
-            boolean waterlogged = level.getFluidState(p).is(FluidTags.WATER);
-            level.setBlock(p, baseFieldState.setValue(PortalFieldBlock.WATERLOGGED, waterlogged), 3);
+            boolean waterlogged = writer.level().getFluidState(p).is(FluidTags.WATER);
+            writer.set(p, baseFieldState.setValue(PortalFieldBlock.WATERLOGGED, waterlogged));
         }
         return true;
     }
 
-    private static void removeField(ServerLevel level, PortalFrameDetector.FrameMatch match) {
+    private static void removeField(PortalBlockWriter writer, PortalFrameDetector.FrameMatch match, BlockPos corePos) {
+        ServerLevel level = writer.level();
+        boolean collapsed = false;
+        boolean collapseUnstable = false;
         for (BlockPos p : match.interior()) {
             var state = level.getBlockState(p);
             if (state.is(ModBlocks.PORTAL_FIELD)) {
-                var axis = state.hasProperty(PortalFieldBlock.AXIS)
-                        ? state.getValue(PortalFieldBlock.AXIS)
-                        : axisFromMatch(match);
-                boolean unstable = state.hasProperty(PortalFieldBlock.UNSTABLE)
-                        && state.getValue(PortalFieldBlock.UNSTABLE);
-                spawnFieldCollapseParticles(level, p, axis, unstable);
+                if (!collapsed) {
+                    collapsed = true;
+                    collapseUnstable = state.hasProperty(PortalFieldBlock.UNSTABLE)
+                            && state.getValue(PortalFieldBlock.UNSTABLE);
+                }
                 boolean waterlogged = state.hasProperty(PortalFieldBlock.WATERLOGGED)
                         && state.getValue(PortalFieldBlock.WATERLOGGED);
-                level.setBlockAndUpdate(
+                writer.set(
                         p,
                         waterlogged
                                 ? net.minecraft.world.level.block.Blocks.WATER.defaultBlockState()
@@ -482,50 +611,58 @@ public final class PortalConnectionManager {
                 );
             }
         }
+        if (collapsed) {
+            EffectTimelines.play(level,
+                    collapseUnstable ? EffectTimelines.FIELD_COLLAPSE_UNSTABLE : EffectTimelines.FIELD_COLLAPSE,
+                    corePos, match.right(), level.getGameTime(), 1);
+        }
     }
 
     private static Direction.Axis axisFromMatch(PortalFrameDetector.FrameMatch match) {
         return match.right() == Direction.EAST ? Direction.Axis.X : Direction.Axis.Z;
     }
 
-    private static void setFieldInstability(ServerLevel level, PortalFrameDetector.FrameMatch match, boolean unstable) {
+    private static void setFieldInstability(PortalBlockWriter writer, PortalFrameDetector.FrameMatch match, boolean unstable) {
         for (BlockPos p : match.interior()) {
-            var state = level.getBlockState(p);
+            var state = writer.level().getBlockState(p);
             if (!state.is(ModBlocks.PORTAL_FIELD) || !state.hasProperty(PortalFieldBlock.UNSTABLE)) continue;
             if (state.getValue(PortalFieldBlock.UNSTABLE) == unstable) continue;
-            level.setBlock(p, state.setValue(PortalFieldBlock.UNSTABLE, unstable), 3);
+            writer.set(p, state.setValue(PortalFieldBlock.UNSTABLE, unstable));
         }
     }
 
-    private static void setFieldInstabilityFallback(ServerLevel level, BlockPos corePos, boolean unstable) {
-        setFieldAreaInstability(level, corePos, net.minecraft.core.Direction.EAST, unstable);
-        setFieldAreaInstability(level, corePos, net.minecraft.core.Direction.SOUTH, unstable);
+    private static void setFieldInstabilityFallback(PortalBlockWriter writer, BlockPos corePos, boolean unstable) {
+        setFieldAreaInstability(writer, corePos, net.minecraft.core.Direction.EAST, unstable);
+        setFieldAreaInstability(writer, corePos, net.minecraft.core.Direction.SOUTH, unstable);
     }
 
-    private static void setFieldAreaInstability(ServerLevel level,
+    private static void setFieldAreaInstability(PortalBlockWriter writer,
                                                 BlockPos corePos,
                                                 net.minecraft.core.Direction right,
                                                 boolean unstable) {
         for (int dy = 1; dy <= PortalFrameDetector.INNER_HEIGHT; dy++) {
             for (int dx = -PortalFrameDetector.INNER_WIDTH / 2; dx <= PortalFrameDetector.INNER_WIDTH / 2; dx++) {
                 BlockPos p = corePos.offset(right.getStepX() * dx, dy, right.getStepZ() * dx);
-                var state = level.getBlockState(p);
+                var state = writer.level().getBlockState(p);
                 if (!state.is(ModBlocks.PORTAL_FIELD) || !state.hasProperty(PortalFieldBlock.UNSTABLE)) continue;
                 if (state.getValue(PortalFieldBlock.UNSTABLE) == unstable) continue;
-                level.setBlock(p, state.setValue(PortalFieldBlock.UNSTABLE, unstable), 3);
+                writer.set(p, state.setValue(PortalFieldBlock.UNSTABLE, unstable));
             }
         }
     }
 
-    private static void removeFieldFallback(ServerLevel level, BlockPos corePos) {
-        removeFieldArea(level, corePos, net.minecraft.core.Direction.EAST);
-        removeFieldArea(level, corePos, net.minecraft.core.Direction.SOUTH);
+    private static void removeFieldFallback(PortalBlockWriter writer, BlockPos corePos) {
+        removeFieldArea(writer, corePos, net.minecraft.core.Direction.EAST);
+        removeFieldArea(writer, corePos, net.minecraft.core.Direction.SOUTH);
     }
 
-    private static void removeFieldArea(ServerLevel level, BlockPos corePos, net.minecraft.core.Direction right) {
+    private static void removeFieldArea(PortalBlockWriter writer, BlockPos corePos, net.minecraft.core.Direction right) {
+        ServerLevel level = writer.level();
         for (int dy = 1; dy <= PortalFrameDetector.INNER_HEIGHT; dy++) {
             for (int dx = -PortalFrameDetector.INNER_WIDTH / 2; dx <= PortalFrameDetector.INNER_WIDTH / 2; dx++) {
                 BlockPos p = corePos.offset(right.getStepX() * dx, dy, right.getStepZ() * dx);
+                // La colonne centrale est commune aux deux orientations.
+                if (writer.contains(p)) continue;
                 var state = level.getBlockState(p);
                 if (state.is(ModBlocks.PORTAL_FIELD)) {
                     var axis = state.hasProperty(PortalFieldBlock.AXIS)
@@ -538,7 +675,7 @@ public final class PortalConnectionManager {
                     spawnFieldCollapseParticles(level, p, axis, unstable);
                     boolean waterlogged = state.hasProperty(PortalFieldBlock.WATERLOGGED)
                             && state.getValue(PortalFieldBlock.WATERLOGGED);
-                    level.setBlockAndUpdate(
+                    writer.set(
                             p,
                             waterlogged
                                     ? net.minecraft.world.level.block.Blocks.WATER.defaultBlockState()
@@ -576,22 +713,22 @@ public final class PortalConnectionManager {
         }
     }
 
-    private static void setFrameActive(ServerLevel level,
+    private static void setFrameActive(PortalBlockWriter writer,
                                        PortalFrameDetector.FrameMatch match,
                                        BlockPos corePos,
                                        boolean active,
                                        boolean unstable) {
-        for (BlockPos p : PortalFrameHelper.collectFrame(match, corePos)) {
-            setFrameBlockState(level, p, active, unstable);
+        for (BlockPos p : match.frame()) {
+            setFrameBlockState(writer, p, active, unstable);
         }
     }
 
-    private static void setFrameActiveFallback(ServerLevel level, BlockPos corePos, boolean active, boolean unstable) {
-        setFrameAreaActive(level, corePos, net.minecraft.core.Direction.EAST, active, unstable);
-        setFrameAreaActive(level, corePos, net.minecraft.core.Direction.SOUTH, active, unstable);
+    private static void setFrameActiveFallback(PortalBlockWriter writer, BlockPos corePos, boolean active, boolean unstable) {
+        setFrameAreaActive(writer, corePos, net.minecraft.core.Direction.EAST, active, unstable);
+        setFrameAreaActive(writer, corePos, net.minecraft.core.Direction.SOUTH, active, unstable);
     }
 
-    private static void setFrameAreaActive(ServerLevel level,
+    private static void setFrameAreaActive(PortalBlockWriter writer,
                                            BlockPos corePos,
                                            net.minecraft.core.Direction right,
                                            boolean active,
@@ -605,13 +742,13 @@ public final class PortalConnectionManager {
                 if (!isBorder || (dx == 0 && dy == 0)) continue;
 
                 BlockPos p = corePos.offset(right.getStepX() * dx, dy, right.getStepZ() * dx);
-                setFrameBlockState(level, p, active, unstable);
+                setFrameBlockState(writer, p, active, unstable);
             }
         }
     }
 
-    private static void setFrameBlockState(ServerLevel level, BlockPos pos, boolean active, boolean unstable) {
-        var state = level.getBlockState(pos);
+    private static void setFrameBlockState(PortalBlockWriter writer, BlockPos pos, boolean active, boolean unstable) {
+        var state = writer.level().getBlockState(pos);
         if (!state.is(ModBlocks.PORTAL_FRAME)) return;
         if (!state.hasProperty(PortalFrameBlock.ACTIVE)
                 || !state.hasProperty(PortalFrameBlock.UNSTABLE)
@@ -627,7 +764,7 @@ public final class PortalConnectionManager {
                 .setValue(PortalFrameBlock.BLINK_ON, blinkOn);
         if (state.equals(updated)) return;
 
-        level.setBlock(pos, updated, 3);
+        writer.set(pos, updated);
     }
 
 }
@@ -68,12 +68,10 @@ public class PortalCoreBlock extends BaseEntityBlock {
         return getSignal(state, level, pos, direction);
     }
 
+    // No ticker: PortalCoreTicker only ticks the cores that have been woken.
     @Override
     public @Nullable <T extends BlockEntity> BlockEntityTicker<T> getTicker(Level level, BlockState state, BlockEntityType<T> type) {
-        if (level.isClientSide) return null;
-        return (lvl, p, st, be) -> {
-            if (be instanceof PortalCoreBlockEntity core) core.serverTick();
-        };
+        return null;
     }
 
     // (Tu peux garder ton useItemOn actuel ici si tu veux un test d’activation)
@@ -1,10 +1,12 @@
 package fr.geomtech.universegate;
 
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.fabricmc.fabric.api.screenhandler.v1.ExtendedScreenHandlerFactory;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.core.particles.ParticleTypes;
@@ -15,6 +17,8 @@ import net.minecraft.world.inventory.AbstractContainerMenu;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreenHandlerFactory<BlockPos> {
@@ -25,7 +29,10 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
     private static final long AMBIENT_LOOP_INTERVAL_TICKS = 20L * 27L;
     private static final long UNSTABLE_AMBIENT_LOOP_INTERVAL_TICKS = 10L;
     private static final long PLAYER_PASS_CHUNK_FORCE_TICKS = 20L * 15L;
+    private static final long CHUNK_TICKET_REFRESH_TICKS = 20L;
     private static final long TICK_DURATION_MILLIS = 50L;
+    private static final long WALL_CLOCK_DEADLINE_CHECK_TICKS = 20L;
+    static final String DEADLINE_TASK = "portal_deadline";
 
     private UUID portalId;
     private String portalName = "";
@@ -42,14 +49,31 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
     private boolean outboundTravelEnabled = false;
     private boolean maintenanceEnergyBypass = false;
     private boolean opening = false;
+    // Source side dialed before the destination chunk was loaded: the target joins once it is.
+    private boolean awaitingTarget = false;
     private long openingStartedGameTime = 0L;
     private long openingCompleteGameTime = 0L;
     private long nextAmbientLoopGameTime = 0L;
     private long keepChunkForcedUntilGameTime = 0L;
     private boolean restorePending = false;
     private boolean outboundChunkForceClaimed = false;
+    private int chunkTicketDistance = 0;
+    private boolean legacyChunkForce = false;
+    private boolean chargedRodNearby = false;
+    private boolean awake = false;
+    private long deadlineTaskId = 0L;
     private int darkEnergyAmount = 0;
     public static final int DARK_ENERGY_THRESHOLD = 4000;
+    private static final long CLIENT_FRAME_RECHECK_TICKS = 10L;
+    private Optional<PortalFrameDetector.FrameMatch> frameMatch = Optional.empty();
+    private boolean frameMatchValid = false;
+    private long frameMatchCheckedGameTime = 0L;
+    private Set<BlockPos> energyPorts = null;
+    private final LongOpenHashSet structureWatch = new LongOpenHashSet();
+    // Keyboards that drive this core; filled by a one-time scan, then kept up to date by the keyboards.
+    private final LongOpenHashSet boundKeyboards = new LongOpenHashSet();
+    private boolean keyboardsBound = false;
+    private PortalTeleportHandler.TeleportTransform teleportTransform = null;
 
     public PortalCoreBlockEntity(BlockPos pos, BlockState state) {
 
@@ -74,6 +98,75 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
         return darkEnergyAmount;
     }
 
+    // ---------- Cached structure ----------
+
+    // The server drops the cache through PortalStructureTracker; clients have no block hook and recheck.
+    public Optional<PortalFrameDetector.FrameMatch> getFrameMatch() {
+        if (level == null) return Optional.empty();
+
+        if (frameMatchValid && level.isClientSide
+                && level.getGameTime() - frameMatchCheckedGameTime >= CLIENT_FRAME_RECHECK_TICKS) {
+            frameMatchValid = false;
+        }
+        if (frameMatchValid) return frameMatch;
+
+        Optional<PortalFrameDetector.FrameMatch> match = PortalFrameDetector.detect(level, worldPosition);
+        if (isRemoved()) return match;
+
+        frameMatch = match;
+        frameMatchValid = true;
+        frameMatchCheckedGameTime = level.getGameTime();
+        if (level instanceof ServerLevel sl) {
+            PortalFrameDetector.collectStructure(worldPosition, structureWatch);
+            watchAround(worldPosition);
+            match.ifPresent(found -> found.frame().forEach(this::watchAround));
+            PortalStructureTracker.watch(sl, this, structureWatch, match);
+        }
+        return frameMatch;
+    }
+
+    // Conduits touching the core or its frame, valid as long as the frame match.
+    public Set<BlockPos> getEnergyPorts(ServerLevel sl) {
+        Optional<PortalFrameDetector.FrameMatch> match = getFrameMatch();
+        if (!frameMatchValid) {
+            return EnergyNetworkHelper.collectPortalStartConduits(sl, worldPosition, match);
+        }
+        if (energyPorts == null) {
+            energyPorts = EnergyNetworkHelper.collectPortalStartConduits(sl, worldPosition, match);
+        }
+        return energyPorts;
+    }
+
+    public void invalidateStructure() {
+        Optional<PortalFrameDetector.FrameMatch> previous = frameMatch;
+        frameMatchValid = false;
+        frameMatch = Optional.empty();
+        energyPorts = null;
+        teleportTransform = null;
+        if (structureWatch.isEmpty()) return;
+
+        if (level instanceof ServerLevel sl) {
+            PortalStructureTracker.unwatch(sl, this, structureWatch, previous);
+        }
+        structureWatch.clear();
+    }
+
+    // Teleport orientation for the current connection, built on the first crossing.
+    PortalTeleportHandler.TeleportTransform getTeleportTransform() {
+        return teleportTransform;
+    }
+
+    void setTeleportTransform(PortalTeleportHandler.TeleportTransform transform) {
+        teleportTransform = transform;
+    }
+
+    private void watchAround(BlockPos pos) {
+        structureWatch.add(pos.asLong());
+        for (net.minecraft.core.Direction direction : net.minecraft.core.Direction.values()) {
+            structureWatch.add(pos.relative(direction).asLong());
+        }
+    }
+
     // ---------- Lifecycle ----------
 
     public void onPlaced() {
@@ -104,6 +197,12 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
         syncOutboundChunkForce(sl, now);
         if (restorePending) {
             restorePending = false;
+            if (legacyChunkForce) {
+                // Saved by a version that forceloaded the chunk: drop that forceload, the ticket replaces it.
+                legacyChunkForce = false;
+                ChunkPos chunkPos = new ChunkPos(worldPosition);
+                sl.setChunkForced(chunkPos.x, chunkPos.z, false);
+            }
             if (active && !restoreActiveState(sl)) return;
             if (opening) {
                 if (targetPortalId == null) {
@@ -117,10 +216,12 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
                 }
                 PortalConnectionManager.setNearbyKeyboardsLit(sl, worldPosition, true);
             }
+            if (isActiveOrOpening()) scheduleDeadline(sl);
         }
         if (now % 10L == 0L) {
-            PortalRiftHelper.findNearestChargedRod(sl, worldPosition, ChargedLightningRodBlock.PORTAL_RADIUS)
-                    .ifPresent((rod) -> spawnRiftParticles(sl));
+            chargedRodNearby = PortalRiftHelper.findNearestChargedRod(sl, worldPosition, ChargedLightningRodBlock.PORTAL_RADIUS)
+                    .isPresent();
+            if (chargedRodNearby) spawnRiftParticles(sl);
         }
         if (opening) {
             PortalConnectionManager.tickOpeningSequence(sl, worldPosition, this);
@@ -132,7 +233,8 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
             activeStartedGameTime = now;
             setChanged();
         }
-        if (closeIfExpired(sl, now)) {
+        // The game-time deadline fires from DeadlineScheduler; this only catches the wall-clock one.
+        if (now % WALL_CLOCK_DEADLINE_CHECK_TICKS == 0L && closeIfExpired(sl, now)) {
             return;
         }
 
@@ -144,6 +246,25 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
         tickPortalAmbientLoop(sl, now);
     }
 
+    // Idle cores leave PortalCoreTicker; a rod still in range keeps the particles going.
+    boolean needsTicking(long now) {
+        return restorePending || chargedRodNearby || outboundChunkForceClaimed || shouldForceOutboundChunk(now);
+    }
+
+    boolean markAwake() {
+        if (awake) return false;
+        awake = true;
+        return true;
+    }
+
+    void markAsleep() {
+        awake = false;
+    }
+
+    void onChargedRodNearby() {
+        chargedRodNearby = true;
+    }
+
     private void spawnRiftParticles(ServerLevel level) {
         double x = worldPosition.getX() + 0.5;
         double y = worldPosition.getY() + 1.2;
@@ -179,6 +300,7 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
                 .setValue(PortalFieldBlock.AXIS, axis)
                 .setValue(PortalFieldBlock.UNSTABLE, unstableVisual);
 
+        PortalBlockWriter writer = new PortalBlockWriter(sl);
         for (BlockPos p : frameMatch.interior()) {
             BlockState current = sl.getBlockState(p);
             boolean waterlogged = current.is(ModBlocks.PORTAL_FIELD)
@@ -187,11 +309,11 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
                     : sl.getFluidState(p).is(FluidTags.WATER);
             BlockState desiredFieldState = desiredFieldBaseState.setValue(PortalFieldBlock.WATERLOGGED, waterlogged);
             if (!current.equals(desiredFieldState)) {
-                sl.setBlock(p, desiredFieldState, 3);
+                writer.set(p, desiredFieldState);
             }
         }
 
-        for (BlockPos p : PortalFrameHelper.collectFrame(frameMatch, worldPosition)) {
+        for (BlockPos p : frameMatch.frame()) {
             BlockState state = sl.getBlockState(p);
             if (state.is(ModBlocks.PORTAL_FRAME)
                     && state.hasProperty(PortalFrameBlock.ACTIVE)
@@ -202,10 +324,11 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
                         .setValue(PortalFrameBlock.UNSTABLE, unstableVisual)
                         .setValue(PortalFrameBlock.BLINK_ON, unstableVisual);
                 if (!updated.equals(state)) {
-                    sl.setBlock(p, updated, 3);
+                    writer.set(p, updated);
                 }
             }
         }
+        writer.apply();
 
         visualUnstable = unstableVisual;
 
@@ -216,6 +339,42 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
         return true;
     }
 
+    // ---------- Deadlines ----------
+
+    // One pending task per core, for the opening completion or the active close time.
+    private void scheduleDeadline(ServerLevel level) {
+        DeadlineScheduler.cancel(level.getServer(), deadlineTaskId);
+        deadlineTaskId = 0L;
+
+        long due = opening ? openingCompleteGameTime : active ? activeUntilGameTime : 0L;
+        if (due <= 0L) return;
+        deadlineTaskId = DeadlineScheduler.schedule(level.getServer(), due, DEADLINE_TASK,
+                DeadlineScheduler.positionData(level, worldPosition));
+    }
+
+    static void onDeadline(MinecraftServer server, CompoundTag data) {
+        ServerLevel level = DeadlineScheduler.level(server, data);
+        if (level == null) return;
+
+        // An unloaded core reschedules from its restore pass.
+        BlockPos pos = DeadlineScheduler.pos(data);
+        if (!level.hasChunkAt(pos)) return;
+        if (!(level.getBlockEntity(pos) instanceof PortalCoreBlockEntity core)) return;
+
+        core.deadlineTaskId = 0L;
+        if (core.opening) {
+            PortalConnectionManager.completeOpening(level, pos, core);
+            // The other side is not there yet: check again next tick.
+            if (core.opening && !core.isRemoved() && core.deadlineTaskId == 0L) {
+                core.deadlineTaskId = DeadlineScheduler.schedule(server, level.getGameTime() + 1L, DEADLINE_TASK, data);
+            }
+            return;
+        }
+        if (core.active && !core.closeIfExpired(level) && core.deadlineTaskId == 0L) {
+            core.scheduleDeadline(level);
+        }
+    }
+
     void onPortalAmbientStarted(long now) {
         nextAmbientLoopGameTime = now + getAmbientLoopIntervalTicks(now);
     }
@@ -246,10 +405,20 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
 
     private void syncOutboundChunkForce(ServerLevel level, long now) {
         boolean shouldForce = shouldForceOutboundChunk(now);
-        if (shouldForce == outboundChunkForceClaimed) return;
+        if (shouldForce == outboundChunkForceClaimed) {
+            // The ticket expires on its own; refresh it long before that while it is needed.
+            if (shouldForce && now % CHUNK_TICKET_REFRESH_TICKS == 0L) {
+                PortalChunkTickets.holdPortal(level, worldPosition, chunkTicketDistance);
+            }
+            return;
+        }
 
-        ChunkPos chunkPos = new ChunkPos(worldPosition);
-        level.setChunkForced(chunkPos.x, chunkPos.z, shouldForce);
+        if (shouldForce) {
+            chunkTicketDistance = PortalChunkTickets.portalTicketDistance(level);
+            PortalChunkTickets.holdPortal(level, worldPosition, chunkTicketDistance);
+        } else {
+            PortalChunkTickets.releasePortal(level, worldPosition, chunkTicketDistance);
+        }
         outboundChunkForceClaimed = shouldForce;
     }
 
@@ -257,6 +426,7 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
     public UUID getPortalId() { return portalId; }
     public boolean isActive() { return active; }
     public boolean isOpening() { return opening; }
+    public boolean isAwaitingTarget() { return awaitingTarget; }
     public boolean isActiveOrOpening() { return active || opening; }
     public UUID getTargetPortalId() { return targetPortalId; }
     public UUID getConnectionId() { return connectionId; }
@@ -277,6 +447,9 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
         activeUntilGameTime = now + PER_ENTITY_EXTENSION_TICKS;
         activeUntilEpochMillis = computeEpochDeadlineFromGameTime(now, activeUntilGameTime);
         setChanged();
+        if (level instanceof ServerLevel sl) {
+            scheduleDeadline(sl);
+        }
     }
 
     void onPlayerPassedThrough(long now) {
@@ -342,17 +515,16 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
         if ((now + phase) % 20L != 0L) return true;
 
         int energyCost = EnergyNetworkHelper.getPortalActiveEnergyCostPerSecond(isVortexUnstable(now));
+        EnergyNetworkHelper.postPortalEnergyDemand(level, worldPosition, energyCost, this::onActiveEnergySettled);
+        return true;
+    }
 
-        boolean consumed = EnergyNetworkHelper.consumePortalEnergy(
-                level,
-                worldPosition,
-                energyCost
-        );
-        if (consumed) return true;
+    private void onActiveEnergySettled(boolean consumed) {
+        if (consumed || isRemoved() || !active) return;
+        if (!(level instanceof ServerLevel sl)) return;
 
-        ModSounds.playAt(level, worldPosition, ModSounds.PORTAL_ERROR, 0.9F, 1.0F);
-        PortalConnectionManager.forceCloseOneSide(level, worldPosition);
-        return false;
+        ModSounds.playAt(sl, worldPosition, ModSounds.PORTAL_ERROR, 0.9F, 1.0F);
+        PortalConnectionManager.forceCloseOneSide(sl, worldPosition);
     }
 
     private void refreshInstabilityVisuals(ServerLevel level, long now) {
@@ -400,8 +572,10 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
                          boolean outboundTravelEnabled,
                          boolean maintenanceEnergyBypass) {
         boolean previouslyEmitting = emitsRedstoneSignal();
+        this.teleportTransform = null;
         this.active = false;
         this.opening = true;
+        this.awaitingTarget = false;
         this.connectionId = connectionId;
         this.targetPortalId = targetPortalId;
         this.activeUntilGameTime = 0L;
@@ -418,13 +592,30 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
         updateRedstoneSignal(previouslyEmitting);
         if (level instanceof ServerLevel sl) {
             syncOutboundChunkForce(sl);
+            scheduleDeadline(sl);
         }
+        PortalCoreTicker.wake(this);
+    }
+
+    void markAwaitingTarget() {
+        if (!opening || awaitingTarget) return;
+        awaitingTarget = true;
+        setChanged();
+    }
+
+    // The target core joined the opening; its id may differ from the registry entry that was dialed.
+    void onTargetAttached(UUID targetPortalId) {
+        if (!awaitingTarget) return;
+        awaitingTarget = false;
+        this.targetPortalId = targetPortalId;
+        setChanged();
     }
 
     void finalizeOpeningState(long activeUntilGameTime, long activeStartedGameTime) {
         if (!opening) return;
         boolean previouslyEmitting = emitsRedstoneSignal();
         this.opening = false;
+        this.awaitingTarget = false;
         this.active = true;
         this.activeUntilGameTime = activeUntilGameTime;
         this.activeUntilEpochMillis = computeEpochDeadlineFromGameTime(activeStartedGameTime, activeUntilGameTime);
@@ -437,7 +628,9 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
         updateRedstoneSignal(previouslyEmitting);
         if (level instanceof ServerLevel sl) {
             syncOutboundChunkForce(sl);
+            scheduleDeadline(sl);
         }
+        PortalCoreTicker.wake(this);
     }
 
     void setActiveState(UUID connectionId,
@@ -447,8 +640,10 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
                         boolean outboundTravelEnabled,
                         boolean maintenanceEnergyBypass) {
         boolean previouslyEmitting = emitsRedstoneSignal();
+        this.teleportTransform = null;
         this.active = true;
         this.opening = false;
+        this.awaitingTarget = false;
         this.connectionId = connectionId;
         this.targetPortalId = targetPortalId;
         this.activeUntilGameTime = activeUntilGameTime;
@@ -467,13 +662,17 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
         updateRedstoneSignal(previouslyEmitting);
         if (level instanceof ServerLevel sl) {
             syncOutboundChunkForce(sl);
+            scheduleDeadline(sl);
         }
+        PortalCoreTicker.wake(this);
     }
 
     void clearActiveState() {
         boolean previouslyEmitting = emitsRedstoneSignal();
+        this.teleportTransform = null;
         this.active = false;
         this.opening = false;
+        this.awaitingTarget = false;
         this.connectionId = null;
         this.targetPortalId = null;
         this.activeUntilGameTime = 0L;
@@ -490,10 +689,49 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
         updateRedstoneSignal(previouslyEmitting);
         if (level instanceof ServerLevel sl) {
             syncOutboundChunkForce(sl);
+            scheduleDeadline(sl);
+        }
+    }
+
+    // ---------- Keyboards ----------
+
+    LongOpenHashSet getBoundKeyboards() {
+        return boundKeyboards;
+    }
+
+    boolean areKeyboardsBound() {
+        return keyboardsBound;
+    }
+
+    void markKeyboardsBound() {
+        if (keyboardsBound) return;
+        keyboardsBound = true;
+        setChanged();
+    }
+
+    void bindKeyboard(BlockPos keyboardPos) {
+        if (boundKeyboards.add(keyboardPos.asLong())) {
+            setChanged();
+        }
+    }
+
+    void unbindKeyboard(BlockPos keyboardPos) {
+        if (boundKeyboards.remove(keyboardPos.asLong())) {
+            setChanged();
         }
     }
 
     // ---------- NBT ----------
+    @Override
+    public void setRemoved() {
+        invalidateStructure();
+        // Also called on chunk unload; the check skips cores whose chunk is gone.
+        if (level instanceof ServerLevel sl) {
+            PortalRegistrySavedData.get(sl.getServer()).queueValidation(portalId);
+        }
+        super.setRemoved();
+    }
+
     @Override
     protected void saveAdditional(CompoundTag tag, HolderLookup.Provider registries) {
         super.saveAdditional(tag, registries);
@@ -503,6 +741,7 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
 
         tag.putBoolean("Active", active);
         tag.putBoolean("Opening", opening);
+        tag.putBoolean("AwaitingTarget", awaitingTarget);
         if (connectionId != null) tag.putUUID("ConnectionId", connectionId);
         if (targetPortalId != null) tag.putUUID("TargetPortalId", targetPortalId);
         tag.putLong("ActiveUntil", activeUntilGameTime);
@@ -514,7 +753,11 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
         tag.putLong("OpeningStart", openingStartedGameTime);
         tag.putLong("OpeningComplete", openingCompleteGameTime);
         tag.putLong("ChunkForceUntil", keepChunkForcedUntilGameTime);
+        tag.putBoolean("ChunkTicket", true);
         tag.putInt("DarkEnergyAmount", darkEnergyAmount);
+        tag.putLong("DeadlineTask", deadlineTaskId);
+        tag.putLongArray("Keyboards", boundKeyboards.toLongArray());
+        tag.putBoolean("KeyboardsBound", keyboardsBound);
     }
 
     @Override
@@ -526,6 +769,7 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
 
         active = tag.getBoolean("Active");
         opening = tag.getBoolean("Opening");
+        awaitingTarget = opening && tag.getBoolean("AwaitingTarget");
         connectionId = tag.hasUUID("ConnectionId") ? tag.getUUID("ConnectionId") : null;
         targetPortalId = tag.hasUUID("TargetPortalId") ? tag.getUUID("TargetPortalId") : null;
         activeUntilGameTime = tag.getLong("ActiveUntil");
@@ -539,6 +783,19 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
         openingCompleteGameTime = tag.contains("OpeningComplete") ? tag.getLong("OpeningComplete") : 0L;
         keepChunkForcedUntilGameTime = tag.contains("ChunkForceUntil") ? tag.getLong("ChunkForceUntil") : 0L;
         darkEnergyAmount = Math.max(0, Math.min(tag.getInt("DarkEnergyAmount"), DARK_ENERGY_THRESHOLD));
+        deadlineTaskId = tag.getLong("DeadlineTask");
+        boundKeyboards.clear();
+        boolean foreignKeyboards = false;
+        for (long keyboard : tag.getLongArray("Keyboards")) {
+            if (PortalConnectionManager.isKeyboardInRange(BlockPos.of(keyboard), worldPosition)) {
+                boundKeyboards.add(keyboard);
+            } else {
+                foreignKeyboards = true;
+            }
+        }
+        // Cores saved before keyboard bindings existed scan their surroundings once, and so do copied
+        // cores, whose bindings still point at the original's keyboards.
+        keyboardsBound = tag.getBoolean("KeyboardsBound") && !foreignKeyboards;
         outboundChunkForceClaimed = false;
 
         if (!active) {
@@ -551,11 +808,14 @@ public class PortalCoreBlockEntity extends BlockEntity implements ExtendedScreen
             openingStartedGameTime = 0L;
             openingCompleteGameTime = 0L;
         }
-        restorePending = active || opening;
+        legacyChunkForce = !tag.getBoolean("ChunkTicket")
+                && (active || opening || keepChunkForcedUntilGameTime > 0L);
+        restorePending = active || opening || legacyChunkForce;
 
         if (level instanceof ServerLevel sl && portalId != null) {
             PortalRegistrySavedData.get(sl.getServer()).upsertPortal(sl, portalId, portalName, worldPosition);
         }
+        PortalCoreTicker.wake(this);
     }
 
     @Override
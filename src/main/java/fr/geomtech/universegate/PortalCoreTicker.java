@@ -0,0 +1,99 @@
+package fr.geomtech.universegate;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerBlockEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Ticks the portal cores that have something to do. Cores have no block entity ticker: they are
+ * woken by the events that give them work (opening or activation, restore after load, a rod
+ * charging nearby) and dropped again once {@link PortalCoreBlockEntity#needsTicking} says they
+ * are idle, so an idle gate network costs nothing per tick. Dark energy is stored by the
+ * generator's own tick and needs no core tick.
+ */
+public final class PortalCoreTicker {
+
+    private static final Map<ResourceKey<Level>, PortalCoreTicker> TICKERS = new HashMap<>();
+
+    private final ServerLevel level;
+    private final List<PortalCoreBlockEntity> awake = new ArrayList<>();
+
+    private PortalCoreTicker(ServerLevel level) {
+        this.level = level;
+    }
+
+    public static void register() {
+        ServerWorldEvents.UNLOAD.register((server, world) -> TICKERS.remove(world.dimension()));
+        // The first tick after a load runs the restore and decides whether the core stays awake.
+        ServerBlockEntityEvents.BLOCK_ENTITY_LOAD.register((blockEntity, world) -> {
+            if (blockEntity instanceof PortalCoreBlockEntity core) {
+                wake(core);
+            }
+        });
+        ServerTickEvents.END_WORLD_TICK.register(PortalCoreTicker::tickWorld);
+    }
+
+    private static PortalCoreTicker get(ServerLevel level) {
+        PortalCoreTicker ticker = TICKERS.get(level.dimension());
+        if (ticker == null || ticker.level != level) {
+            ticker = new PortalCoreTicker(level);
+            TICKERS.put(level.dimension(), ticker);
+        }
+        return ticker;
+    }
+
+    static void wake(PortalCoreBlockEntity core) {
+        if (!(core.getLevel() instanceof ServerLevel sl) || core.isRemoved()) return;
+        if (core.markAwake()) {
+            get(sl).awake.add(core);
+        }
+    }
+
+    // A charged rod makes every core in its portal radius emit rift particles.
+    static void wakeNear(ServerLevel level, BlockPos rodPos, int radius) {
+        for (BlockPos pos : PortalStructureTracker.coresNear(level, rodPos, radius, radius, false)) {
+            // Also called while a chunk loads: never pull in a chunk from here.
+            if (!level.hasChunkAt(pos)) continue;
+            if (level.getBlockEntity(pos) instanceof PortalCoreBlockEntity core) {
+                core.onChargedRodNearby();
+                wake(core);
+            }
+        }
+    }
+
+    private static void tickWorld(ServerLevel level) {
+        PortalCoreTicker ticker = TICKERS.get(level.dimension());
+        if (ticker == null || ticker.level != level || ticker.awake.isEmpty()) return;
+        ticker.tick();
+    }
+
+    private void tick() {
+        boolean dropped = false;
+        // Cores woken during this pass are appended and ticked in the same pass.
+        for (int i = 0; i < awake.size(); i++) {
+            PortalCoreBlockEntity core = awake.get(i);
+            // Portal tickets may hold a core's chunk at border level only, so any loaded core ticks.
+            if (!core.isRemoved()) {
+                core.serverTick();
+            }
+            if (core.isRemoved() || !core.needsTicking(level.getGameTime())) {
+                core.markAsleep();
+                awake.set(i, null);
+                dropped = true;
+            }
+        }
+        if (dropped) {
+            awake.removeIf(Objects::isNull);
+        }
+    }
+}
@@ -208,14 +208,6 @@ public class PortalFieldBlock extends Block implements EntityBlock, SimpleWaterl
     }
 
     private static BlockPos findCoreNear(ServerLevel level, BlockPos center, int rXZ, int rY) {
-        for (int dy = -rY; dy <= rY; dy++) {
-            for (int dx = -rXZ; dx <= rXZ; dx++) {
-                for (int dz = -rXZ; dz <= rXZ; dz++) {
-                    BlockPos p = center.offset(dx, dy, dz);
-                    if (level.getBlockState(p).is(ModBlocks.PORTAL_CORE)) return p;
-                }
-            }
-        }
-        return null;
+        return PortalStructureTracker.findCoreNear(level, center, rXZ, rY);
     }
 }
@@ -2,6 +2,7 @@ package fr.geomtech.universegate;
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
@@ -89,14 +90,7 @@ public class PortalFrameBlockEntity extends BlockEntity {
     }
 
     private static BlockPos findCoreNear(Level level, BlockPos center, int rXZ, int rY) {
-        for (int dy = -rY; dy <= rY; dy++) {
-            for (int dx = -rXZ; dx <= rXZ; dx++) {
-                for (int dz = -rXZ; dz <= rXZ; dz++) {
-                    BlockPos p = center.offset(dx, dy, dz);
-                    if (level.getBlockState(p).is(ModBlocks.PORTAL_CORE)) return p;
-                }
-            }
-        }
-        return null;
+        if (!(level instanceof ServerLevel sl)) return null;
+        return PortalStructureTracker.findCoreNear(sl, center, rXZ, rY);
     }
 }
@@ -1,5 +1,6 @@
 package fr.geomtech.universegate;
 
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.world.level.Level;
@@ -25,9 +26,18 @@ public final class PortalFrameDetector {
 
     private PortalFrameDetector() {}
 
-    public record FrameMatch(Direction right, List<BlockPos> interior) {}
+    // Interior and frame (border without the core, bottom row first) are immutable and may be shared.
+    public record FrameMatch(Direction right, List<BlockPos> interior, List<BlockPos> frame) {}
 
+    // The core keeps the last match until a block of the structure changes.
     public static Optional<FrameMatch> find(Level level, BlockPos corePos) {
+        if (level.getBlockEntity(corePos) instanceof PortalCoreBlockEntity core) {
+            return core.getFrameMatch();
+        }
+        return detect(level, corePos);
+    }
+
+    static Optional<FrameMatch> detect(Level level, BlockPos corePos) {
         // Deux orientations : largeur sur X (EAST) ou sur Z (SOUTH)
         Optional<FrameMatch> x = tryMatch(level, corePos, Direction.EAST);
         if (x.isPresent()) return x;
@@ -40,6 +50,7 @@ public final class PortalFrameDetector {
 
     private static Optional<FrameMatch> tryMatch(Level level, BlockPos corePos, Direction right) {
         List<BlockPos> interior = new ArrayList<>();
+        List<BlockPos> frame = new ArrayList<>();
 
         for (int dy = 0; dy <= TOP_Y; dy++) {
             for (int dx = -HALF_OUTER_WIDTH; dx <= HALF_OUTER_WIDTH; dx++) {
@@ -58,6 +69,7 @@ public final class PortalFrameDetector {
 
                     // Tout le reste du contour : PORTAL_FRAME obligatoire
                     if (!state.is(ModBlocks.PORTAL_FRAME)) return Optional.empty();
+                    frame.add(p);
 
                 } else {
                     // Intérieur : on accepte "vide" (air) ou blocs remplaçables si tu veux.
@@ -70,7 +82,21 @@ public final class PortalFrameDetector {
             }
         }
 
-        return Optional.of(new FrameMatch(right, interior));
+        return Optional.of(new FrameMatch(right, List.copyOf(interior), List.copyOf(frame)));
+    }
+
+    // Every position that decides the match, in both orientations.
+    static void collectStructure(BlockPos corePos, LongOpenHashSet output) {
+        for (Direction right : new Direction[] { Direction.EAST, Direction.SOUTH }) {
+            for (int dy = 0; dy <= TOP_Y; dy++) {
+                for (int dx = -HALF_OUTER_WIDTH; dx <= HALF_OUTER_WIDTH; dx++) {
+                    output.add(BlockPos.asLong(
+                            corePos.getX() + right.getStepX() * dx,
+                            corePos.getY() + dy,
+                            corePos.getZ() + right.getStepZ() * dx));
+                }
+            }
+        }
     }
 
     private static BlockPos offset(BlockPos origin, Direction right, int dx, int dy) {
@@ -9,24 +9,6 @@ public final class PortalFrameHelper {
 
     private PortalFrameHelper() {}
 
-    public static List<BlockPos> collectFrame(PortalFrameDetector.FrameMatch match, BlockPos corePos) {
-        List<BlockPos> result = new ArrayList<>();
-        int halfWidth = PortalFrameDetector.INNER_WIDTH / 2 + 1; // 2
-        int topY = PortalFrameDetector.INNER_HEIGHT + 1; // 5
-
-        for (int dy = 0; dy <= topY; dy++) {
-            for (int dx = -halfWidth; dx <= halfWidth; dx++) {
-                boolean isBorder = (dy == 0 || dy == topY || dx == -halfWidth || dx == halfWidth);
-                if (!isBorder) continue;
-                if (dx == 0 && dy == 0) continue; 
-
-                BlockPos p = corePos.offset(match.right().getStepX() * dx, dy, match.right().getStepZ() * dx);
-                result.add(p);
-            }
-        }
-        return result;
-    }
-
     public static List<BlockPos> collectFrameRotationPath(PortalFrameDetector.FrameMatch match, BlockPos corePos) {
         List<BlockPos> result = new ArrayList<>();
         int halfWidth = PortalFrameDetector.INNER_WIDTH / 2 + 1;
@@ -156,6 +156,7 @@ public class PortalKeyboardBlock extends BaseEntityBlock {
         if (!level.isClientSide && !state.is(newState.getBlock())) {
             if (level instanceof ServerLevel sl) {
                 PortalConnectionManager.forceCloseFromKeyboard(sl, pos);
+                PortalConnectionManager.unbindKeyboard(sl, pos);
             }
             BlockEntity be = level.getBlockEntity(pos);
             if (be instanceof PortalKeyboardBlockEntity keyboard) {
@@ -14,6 +14,7 @@ import net.minecraft.world.inventory.AbstractContainerMenu;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Objects;
 
@@ -26,6 +27,10 @@ public class PortalKeyboardBlockEntity extends BlockEntity implements WorldlyCon
     private final net.minecraft.core.NonNullList<ItemStack> items =
             net.minecraft.core.NonNullList.withSize(SIZE, ItemStack.EMPTY);
 
+    // Portal core this keyboard lights with and dials from; resolved again if the core disappears.
+    @Nullable
+    private BlockPos boundCore = null;
+
     public PortalKeyboardBlockEntity(BlockPos pos, BlockState state) {
         super(ModBlockEntities.PORTAL_KEYBOARD, pos, state);
     }
@@ -34,6 +39,18 @@ public class PortalKeyboardBlockEntity extends BlockEntity implements WorldlyCon
         super(type, pos, state);
     }
 
+    @Nullable
+    public BlockPos getBoundCore() {
+        return boundCore;
+    }
+
+    void setBoundCore(@Nullable BlockPos corePos) {
+        BlockPos immutable = corePos == null ? null : corePos.immutable();
+        if (Objects.equals(boundCore, immutable)) return;
+        boundCore = immutable;
+        setChanged();
+    }
+
     // --- Legacy API (kept for compatibility) ---
     public boolean consumeOneFuel() {
         return false;
@@ -113,6 +130,7 @@ public class PortalKeyboardBlockEntity extends BlockEntity implements WorldlyCon
     protected void saveAdditional(CompoundTag tag, HolderLookup.Provider registries) {
         super.saveAdditional(tag, registries);
         ContainerHelper.saveAllItems(tag, items, registries);
+        if (boundCore != null) tag.putLong("BoundCore", boundCore.asLong());
     }
 
     @Override
@@ -120,6 +138,11 @@ public class PortalKeyboardBlockEntity extends BlockEntity implements WorldlyCon
         super.loadAdditional(tag, registries);
         ContainerHelper.loadAllItems(tag, items, registries);
         items.set(SLOT_FUEL, ItemStack.EMPTY);
+        boundCore = tag.contains("BoundCore") ? BlockPos.of(tag.getLong("BoundCore")) : null;
+        // A copied keyboard keeps the original's binding; let it find the core next to it instead.
+        if (boundCore != null && !PortalConnectionManager.isKeyboardInRange(worldPosition, boundCore)) {
+            boundCore = null;
+        }
     }
 
     @Override
@@ -4,6 +4,7 @@ import fr.geomtech.universegate.net.UniverseGateNetwork;
 import net.fabricmc.fabric.api.screenhandler.v1.ExtendedScreenHandlerFactory;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.InteractionResultHolder;
@@ -64,15 +65,7 @@ public class PortalMobileKeyboardItem extends Item {
     }
 
     private static BlockPos findCoreNear(Level level, BlockPos center) {
-        for (int y = -CORE_SEARCH_RADIUS_Y; y <= CORE_SEARCH_RADIUS_Y; y++) {
-            for (int x = -CORE_SEARCH_RADIUS_XZ; x <= CORE_SEARCH_RADIUS_XZ; x++) {
-                for (int z = -CORE_SEARCH_RADIUS_XZ; z <= CORE_SEARCH_RADIUS_XZ; z++) {
-                    BlockPos p = center.offset(x, y, z);
-                    if (!level.hasChunkAt(p)) continue;
-                    if (level.getBlockState(p).is(ModBlocks.PORTAL_CORE)) return p.immutable();
-                }
-            }
-        }
-        return null;
+        if (!(level instanceof ServerLevel sl)) return null;
+        return PortalStructureTracker.findCoreNear(sl, center, CORE_SEARCH_RADIUS_XZ, CORE_SEARCH_RADIUS_Y, false);
     }
 }
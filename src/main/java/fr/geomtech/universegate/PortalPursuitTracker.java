@@ -1,7 +1,9 @@
 package fr.geomtech.universegate;
 
 import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
 import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.effect.MobEffects;
@@ -10,11 +12,10 @@ import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.level.Level;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class PortalPursuitTracker {
 
@@ -22,12 +23,16 @@ public final class PortalPursuitTracker {
     private static final long MOB_PORTAL_NUDGE_INTERVAL_TICKS = 10L;
     private static final double MOB_PORTAL_NUDGE_SPEED = 1.15D;
 
+    static final String PURSUIT_TASK = "portal_pursuit";
+
     private record PursuitState(ResourceKey<Level> sourceDimension,
                                 BlockPos portalFieldPos,
                                 UUID playerId,
-                                long expiresAtGameTime) {}
+                                long expiresAtGameTime,
+                                long chain) {}
 
     private static final Map<UUID, PursuitState> TRACKED = new ConcurrentHashMap<>();
+    private static final AtomicLong CHAINS = new AtomicLong();
 
     private PortalPursuitTracker() {}
 
@@ -35,16 +40,28 @@ public final class PortalPursuitTracker {
                                                  Mob mob,
                                                  BlockPos portalFieldPos,
                                                  UUID playerId) {
-        long expiresAt = level.getGameTime() + MOB_PORTAL_PURSUIT_GRACE_TICKS;
+        long now = level.getGameTime();
+        long expiresAt = now + MOB_PORTAL_PURSUIT_GRACE_TICKS;
         BlockPos immutableFieldPos = portalFieldPos.immutable();
+        long chain = CHAINS.incrementAndGet();
 
-        TRACKED.merge(
+        // A tracked mob keeps its running step chain; only a new one starts a chain.
+        PursuitState merged = TRACKED.merge(
                 mob.getUUID(),
-                new PursuitState(level.dimension(), immutableFieldPos, playerId, expiresAt),
+                new PursuitState(level.dimension(), immutableFieldPos, playerId, expiresAt, chain),
                 (oldState, newState) -> oldState.expiresAtGameTime() >= newState.expiresAtGameTime()
                         ? oldState
-                        : newState
+                        : new PursuitState(newState.sourceDimension(), newState.portalFieldPos(),
+                                newState.playerId(), newState.expiresAtGameTime(), oldState.chain())
         );
+        if (merged.chain() != chain) return;
+
+        long phase = Math.floorMod(mob.getUUID().getLeastSignificantBits(), MOB_PORTAL_NUDGE_INTERVAL_TICKS);
+        long firstStep = now + 1L + Math.floorMod(phase - (now + 1L), MOB_PORTAL_NUDGE_INTERVAL_TICKS);
+        CompoundTag data = new CompoundTag();
+        data.putUUID("Mob", mob.getUUID());
+        data.putLong("Chain", chain);
+        DeadlineScheduler.schedule(level.getServer(), firstStep, PURSUIT_TASK, data);
     }
 
     public static void onMobTeleported(ServerLevel destinationLevel, Mob mob) {
@@ -60,6 +77,19 @@ public final class PortalPursuitTracker {
         ServerPlayer player = destinationLevel.getServer().getPlayerList().getPlayer(state.playerId());
         if (player == null || player.level() != destinationLevel) return;
 
+        retarget(destinationLevel, mob, player);
+        TRACKED.remove(mob.getUUID(), state);
+    }
+
+    // A pursuer moved in the same batch as the player it chases.
+    public static void onMobFollowedThrough(ServerLevel destinationLevel, Mob mob, ServerPlayer player) {
+        TRACKED.remove(mob.getUUID());
+        if (player.level() != destinationLevel) return;
+
+        retarget(destinationLevel, mob, player);
+    }
+
+    private static void retarget(ServerLevel level, Mob mob, ServerPlayer player) {
         if (mob.hasEffect(MobEffects.INVISIBILITY)) {
             mob.removeEffect(MobEffects.INVISIBILITY);
         }
@@ -68,10 +98,9 @@ public final class PortalPursuitTracker {
         }
 
         mob.setTarget(player);
-        refreshMobTracking(destinationLevel, mob);
+        refreshMobTracking(level, mob);
         mob.hasImpulse = true;
         mob.hurtMarked = true;
-        TRACKED.remove(mob.getUUID(), state);
     }
 
     private static void refreshMobTracking(ServerLevel level, Mob mob) {
@@ -93,50 +122,43 @@ public final class PortalPursuitTracker {
         return true;
     }
 
-    public static void tickWorld(ServerLevel level) {
+    // Runs once per nudge interval for each pursuing mob, until it crosses or the grace period ends.
+    static void onPursuitStep(MinecraftServer server, CompoundTag data) {
+        UUID mobId = data.getUUID("Mob");
+        PursuitState state = TRACKED.get(mobId);
+        if (state == null || state.chain() != data.getLong("Chain")) return;
+
+        ServerLevel level = server.getLevel(state.sourceDimension());
+        if (level == null) {
+            TRACKED.remove(mobId, state);
+            return;
+        }
+
         long now = level.getGameTime();
-        List<UUID> toRemove = new ArrayList<>();
-
-        for (Map.Entry<UUID, PursuitState> entry : TRACKED.entrySet()) {
-            UUID mobId = entry.getKey();
-            PursuitState state = entry.getValue();
-
-            if (!state.sourceDimension().equals(level.dimension())) continue;
-
-            if (now >= state.expiresAtGameTime()) {
-                toRemove.add(mobId);
-                continue;
-            }
-
-            Entity entity = level.getEntity(mobId);
-            if (!(entity instanceof Mob mob) || !mob.isAlive()) {
-                toRemove.add(mobId);
-                continue;
-            }
-
-            LivingEntity currentTarget = mob.getTarget();
-            if (currentTarget != null && currentTarget.level() == level) {
-                continue;
-            }
-            if (currentTarget != null) {
-                mob.setTarget(null);
-            }
-
-            long phase = Math.floorMod(mobId.getLeastSignificantBits(), MOB_PORTAL_NUDGE_INTERVAL_TICKS);
-            if (Math.floorMod(now, MOB_PORTAL_NUDGE_INTERVAL_TICKS) != phase) continue;
-
-            BlockPos portalFieldPos = state.portalFieldPos();
-            double targetX = portalFieldPos.getX() + 0.5D;
-            double targetY = portalFieldPos.getY() + 0.5D;
-            double targetZ = portalFieldPos.getZ() + 0.5D;
-
-            mob.getNavigation().moveTo(targetX, targetY, targetZ, MOB_PORTAL_NUDGE_SPEED);
-            mob.getMoveControl().setWantedPosition(targetX, targetY, targetZ, MOB_PORTAL_NUDGE_SPEED);
+        if (now >= state.expiresAtGameTime()) {
+            TRACKED.remove(mobId, state);
+            return;
         }
 
-        if (toRemove.isEmpty()) return;
-        for (UUID mobId : toRemove) {
-            TRACKED.remove(mobId);
+        Entity entity = level.getEntity(mobId);
+        if (!(entity instanceof Mob mob) || !mob.isAlive()) {
+            TRACKED.remove(mobId, state);
+            return;
+        }
+        DeadlineScheduler.schedule(server, now + MOB_PORTAL_NUDGE_INTERVAL_TICKS, PURSUIT_TASK, data);
+
+        LivingEntity currentTarget = mob.getTarget();
+        if (currentTarget != null && currentTarget.level() == level) return;
+        if (currentTarget != null) {
+            mob.setTarget(null);
         }
+
+        BlockPos portalFieldPos = state.portalFieldPos();
+        double targetX = portalFieldPos.getX() + 0.5D;
+        double targetY = portalFieldPos.getY() + 0.5D;
+        double targetZ = portalFieldPos.getZ() + 0.5D;
+
+        mob.getNavigation().moveTo(targetX, targetY, targetZ, MOB_PORTAL_NUDGE_SPEED);
+        mob.getMoveControl().setWantedPosition(targetX, targetY, targetZ, MOB_PORTAL_NUDGE_SPEED);
     }
 }
@@ -1,29 +1,146 @@
 package fr.geomtech.universegate;
 
+import com.mojang.brigadier.context.CommandContext;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.Tag;
+import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.world.level.saveddata.SavedData;
+import org.jetbrains.annotations.Nullable;
 
 
 import fr.geomtech.universegate.net.UniverseGateNetwork;
 
 import java.util.*;
-
+import java.util.function.Predicate;
+
+/**
+ * Portal registry. Besides the id map, entries are indexed by visibility, by dimension and, inside
+ * a dimension, by a grid of 64-block cells, so nearest, radius and random lookups only touch the
+ * entries that can match instead of every portal on the server. The indexes are rebuilt on load.
+ * Stale entries are checked a few per tick when their chunk loads or their core goes away; a
+ * full sweep is only run by the admin command. Visible entries are also indexed by the trigrams of
+ * their lowercase name, so keyboard searches only check the entries sharing the query's rarest one.
+ * Changes to the visible list bump a version and go to a bounded change log, from which keyboard
+ * clients learn which of the entries they hold are out of date.
+ */
 public class PortalRegistrySavedData extends SavedData {
 
     private static final String DATA_NAME = UniverseGate.MOD_ID + "_portal_registry";
+    // 4x4 chunks per cell.
+    private static final int CELL_SHIFT = 6;
+    private static final int CELL_SIZE = 1 << CELL_SHIFT;
+    private static final int VALIDATIONS_PER_TICK = 16;
+    private static final int NAME_GRAM = 3;
+    // Clients further behind than this drop their whole copy.
+    private static final int CHANGE_LOG_SIZE = 1024;
 
     public record PortalEntry(UUID id, String name, ResourceKey<Level> dim, BlockPos pos, boolean hidden) {}
 
+    // Entry list with O(1) add, remove (swap with the last entry) and random access.
+    private static final class EntryList {
+        private final List<PortalEntry> entries = new ArrayList<>();
+        private final Object2IntOpenHashMap<UUID> slots = new Object2IntOpenHashMap<>();
+
+        private EntryList() {
+            slots.defaultReturnValue(-1);
+        }
+
+        private void add(PortalEntry entry) {
+            int slot = slots.getInt(entry.id());
+            if (slot >= 0) {
+                entries.set(slot, entry);
+                return;
+            }
+            slots.put(entry.id(), entries.size());
+            entries.add(entry);
+        }
+
+        private void remove(UUID id) {
+            int slot = slots.removeInt(id);
+            if (slot < 0) return;
+
+            PortalEntry last = entries.remove(entries.size() - 1);
+            if (slot < entries.size()) {
+                entries.set(slot, last);
+                slots.put(last.id(), slot);
+            }
+        }
+
+        private boolean isEmpty() {
+            return entries.isEmpty();
+        }
+    }
+
+    private static final class DimensionIndex {
+        private final EntryList entries = new EntryList();
+        private final Long2ObjectOpenHashMap<EntryList> cells = new Long2ObjectOpenHashMap<>();
+        private int visibleCount;
+    }
+
     private final Map<UUID, PortalEntry> portals = new HashMap<>();
+    private final EntryList allEntries = new EntryList();
+    private final EntryList visibleEntries = new EntryList();
+    private final Map<ResourceKey<Level>, DimensionIndex> dimensions = new HashMap<>();
+    // Ids waiting for a check against the world; not saved, chunk loads queue them again.
+    private final ArrayDeque<UUID> pendingValidation = new ArrayDeque<>();
+    private final ObjectOpenHashSet<UUID> queuedValidation = new ObjectOpenHashSet<>();
+    private final Map<String, EntryList> nameGrams = new HashMap<>();
+    // Not saved: clients drop their copy when they disconnect, so the version only lives as long as the server.
+    private long visibleVersion;
+    // Id added to, changed in or removed from the visible list, one per version.
+    private final ArrayDeque<UUID> changeLog = new ArrayDeque<>();
+
+    public static void register() {
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) -> get(world.getServer()).queueChunk(world.dimension(), chunk.getPos()));
+        // Entries of dimensions that no longer exist never see a chunk load.
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            PortalRegistrySavedData registry = get(server);
+            for (Map.Entry<ResourceKey<Level>, DimensionIndex> dimension : registry.dimensions.entrySet()) {
+                if (server.getLevel(dimension.getKey()) != null) continue;
+                for (PortalEntry entry : dimension.getValue().entries.entries) {
+                    registry.queueValidation(entry.id());
+                }
+            }
+        });
+        ServerTickEvents.END_SERVER_TICK.register(server -> get(server).validatePending(server));
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> dispatcher.register(
+                Commands.literal("universegate")
+                        .then(Commands.literal("registry")
+                                .requires(source -> source.hasPermission(2))
+                                .then(Commands.literal("prune").executes(PortalRegistrySavedData::pruneCommand)))
+        ));
+    }
+
+    private static int pruneCommand(CommandContext<CommandSourceStack> context) {
+        MinecraftServer server = context.getSource().getServer();
+        PortalRegistrySavedData registry = get(server);
+        int removed = registry.pruneMissingPortals(server);
+        int remaining = registry.portals.size();
+        context.getSource().sendSuccess(() -> Component.literal(
+                "Registre des portails : " + removed + " entree(s) supprimee(s), " + remaining + " restante(s)."
+        ), true);
+        return removed;
+    }
 
     public static PortalRegistrySavedData get(MinecraftServer server) {
         ServerLevel overworld = server.overworld();
@@ -43,46 +160,372 @@ public class PortalRegistrySavedData extends SavedData {
     }
 
     public Collection<PortalEntry> listVisible() {
-        List<PortalEntry> visible = new ArrayList<>();
-        for (PortalEntry entry : portals.values()) {
-            if (!entry.hidden()) visible.add(entry);
+        return Collections.unmodifiableList(visibleEntries.entries);
+    }
+
+    public Collection<PortalEntry> listInDimension(ResourceKey<Level> dim) {
+        DimensionIndex index = dimensions.get(dim);
+        return index == null ? List.of() : Collections.unmodifiableList(index.entries.entries);
+    }
+
+    public boolean hasPortalIn(ResourceKey<Level> dim) {
+        return dimensions.containsKey(dim);
+    }
+
+    // Portals of the dimension whose horizontal distance to the center is at most the radius.
+    public List<PortalEntry> listWithin(ResourceKey<Level> dim, BlockPos center, int radiusXZ) {
+        DimensionIndex index = dimensions.get(dim);
+        if (index == null) return List.of();
+
+        long radiusSqr = (long) radiusXZ * radiusXZ;
+        List<PortalEntry> result = new ArrayList<>(1);
+        for (int cellX = (center.getX() - radiusXZ) >> CELL_SHIFT; cellX <= (center.getX() + radiusXZ) >> CELL_SHIFT; cellX++) {
+            for (int cellZ = (center.getZ() - radiusXZ) >> CELL_SHIFT; cellZ <= (center.getZ() + radiusXZ) >> CELL_SHIFT; cellZ++) {
+                EntryList cell = index.cells.get(cellKey(cellX, cellZ));
+                if (cell == null) continue;
+
+                for (PortalEntry entry : cell.entries) {
+                    if (horizontalDistanceSqr(entry.pos(), center) <= radiusSqr) {
+                        result.add(entry);
+                    }
+                }
+            }
         }
-        return Collections.unmodifiableCollection(visible);
+        return result;
     }
 
-    public boolean pruneMissingPortals(MinecraftServer server) {
-        boolean changed = false;
+    // Nearest portal of the dimension, searching the grid in rings around the target cell.
+    @Nullable
+    public PortalEntry findNearest(ResourceKey<Level> dim, BlockPos target) {
+        DimensionIndex index = dimensions.get(dim);
+        if (index == null) return null;
 
-        Iterator<Map.Entry<UUID, PortalEntry>> it = portals.entrySet().iterator();
-        while (it.hasNext()) {
-            PortalEntry entry = it.next().getValue();
-            ServerLevel level = server.getLevel(entry.dim());
-            if (level == null) {
-                it.remove();
-                changed = true;
-                continue;
+        int centerX = target.getX() >> CELL_SHIFT;
+        int centerZ = target.getZ() >> CELL_SHIFT;
+        PortalEntry best = null;
+        double bestDistance = Double.MAX_VALUE;
+        int visitedCells = 0;
+        for (int ring = 0; ; ring++) {
+            // Cells of this ring are at least (ring - 1) cells away horizontally.
+            double ringMin = Math.max(0, ring - 1) * (double) CELL_SIZE;
+            if (best != null && ringMin * ringMin > bestDistance) return best;
+            // Sparse dimension: once the rings cover more cells than there are portals, scan them all.
+            if (visitedCells > index.cells.size()) return nearestOf(index.entries.entries, target);
+
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dz = -ring; dz <= ring; dz++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dz)) != ring) continue;
+
+                    visitedCells++;
+                    EntryList cell = index.cells.get(cellKey(centerX + dx, centerZ + dz));
+                    if (cell == null) continue;
+
+                    for (PortalEntry entry : cell.entries) {
+                        double distance = entry.pos().distSqr(target);
+                        if (distance < bestDistance) {
+                            best = entry;
+                            bestDistance = distance;
+                        }
+                    }
+                }
             }
+        }
+    }
 
-            if (!level.hasChunkAt(entry.pos())) {
-                continue;
+    // A random portal accepted by the filter, uniform among the accepted ones. Entries are tried in
+    // a random order (a Fisher-Yates shuffle kept sparse in a map) and the walk stops at the first match.
+    @Nullable
+    public PortalEntry pickRandom(RandomSource random, Predicate<PortalEntry> filter) {
+        List<PortalEntry> entries = allEntries.entries;
+        int size = entries.size();
+        if (size == 0) return null;
+
+        // Slot -> entry index moved there by an earlier draw; untouched slots hold themselves.
+        Int2IntOpenHashMap moved = new Int2IntOpenHashMap();
+        for (int remaining = size; remaining > 0; remaining--) {
+            int draw = random.nextInt(remaining);
+            int slot = moved.getOrDefault(draw, draw);
+            int last = remaining - 1;
+            moved.put(draw, moved.getOrDefault(last, last));
+
+            // The filter may load chunks, and a loading core can register itself meanwhile.
+            if (slot >= entries.size()) continue;
+            PortalEntry entry = entries.get(slot);
+            if (filter.test(entry)) return entry;
+        }
+        return null;
+    }
+
+    @Nullable
+    private static PortalEntry nearestOf(List<PortalEntry> entries, BlockPos target) {
+        PortalEntry best = null;
+        double bestDistance = Double.MAX_VALUE;
+        for (PortalEntry entry : entries) {
+            double distance = entry.pos().distSqr(target);
+            if (distance < bestDistance) {
+                best = entry;
+                bestDistance = distance;
             }
+        }
+        return best;
+    }
 
-            if (!(level.getBlockEntity(entry.pos()) instanceof PortalCoreBlockEntity core)) {
-                it.remove();
-                changed = true;
-                continue;
+    private static long horizontalDistanceSqr(BlockPos a, BlockPos b) {
+        long dx = (long) a.getX() - b.getX();
+        long dz = (long) a.getZ() - b.getZ();
+        return dx * dx + dz * dz;
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    private static long cellKey(BlockPos pos) {
+        return cellKey(pos.getX() >> CELL_SHIFT, pos.getZ() >> CELL_SHIFT);
+    }
+
+    /**
+     * Visible entries whose display name contains the query (case-insensitive), optionally limited
+     * to one dimension. Queries of three characters or more only check the entries holding the
+     * query's rarest trigram.
+     */
+    public List<PortalEntry> searchVisible(String query, @Nullable ResourceKey<Level> dim) {
+        String needle = query.trim().toLowerCase(Locale.ROOT);
+        List<PortalEntry> result = new ArrayList<>();
+
+        if (needle.length() < NAME_GRAM) {
+            Collection<PortalEntry> candidates = dim == null ? visibleEntries.entries : listInDimension(dim);
+            for (PortalEntry entry : candidates) {
+                if (!entry.hidden() && (needle.isEmpty() || searchKey(entry).contains(needle))) {
+                    result.add(entry);
+                }
             }
+            return result;
+        }
 
-            if (core.getPortalId() != null && !entry.id().equals(core.getPortalId())) {
-                it.remove();
-                changed = true;
+        EntryList rarest = null;
+        for (int i = 0; i + NAME_GRAM <= needle.length(); i++) {
+            EntryList list = nameGrams.get(needle.substring(i, i + NAME_GRAM));
+            if (list == null) return result;
+            if (rarest == null || list.entries.size() < rarest.entries.size()) {
+                rarest = list;
+            }
+        }
+        for (PortalEntry entry : rarest.entries) {
+            if ((dim == null || dim.equals(entry.dim())) && searchKey(entry).contains(needle)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    // Dimensions holding at least one visible portal, for the keyboard dimension filter.
+    public List<ResourceKey<Level>> dimensionsWithVisiblePortals() {
+        List<ResourceKey<Level>> result = new ArrayList<>();
+        for (Map.Entry<ResourceKey<Level>, DimensionIndex> dimension : dimensions.entrySet()) {
+            if (dimension.getValue().visibleCount > 0) {
+                result.add(dimension.getKey());
+            }
+        }
+        return result;
+    }
+
+    // Name shown in keyboard lists; unnamed portals show the start of their id.
+    public static String displayName(PortalEntry entry) {
+        return entry.name().isEmpty() ? "Portal " + entry.id().toString().substring(0, 8) : entry.name();
+    }
+
+    private static String searchKey(PortalEntry entry) {
+        return displayName(entry).toLowerCase(Locale.ROOT);
+    }
+
+    // ---------- Indexes ----------
+
+    private static Set<String> nameGrams(PortalEntry entry) {
+        String key = searchKey(entry);
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + NAME_GRAM <= key.length(); i++) {
+            grams.add(key.substring(i, i + NAME_GRAM));
+        }
+        return grams;
+    }
+
+    private void put(PortalEntry entry) {
+        PortalEntry previous = portals.put(entry.id(), entry);
+        if (previous != null) {
+            unindex(previous);
+        }
+        index(entry);
+
+        boolean wasVisible = previous != null && !previous.hidden();
+        boolean listingChanged = entry.hidden() ? wasVisible : !wasVisible || !sameListing(previous, entry);
+        if (listingChanged) {
+            logVisibleChange(entry.id());
+        }
+    }
+
+    @Nullable
+    private PortalEntry delete(UUID id) {
+        PortalEntry previous = portals.remove(id);
+        if (previous != null) {
+            unindex(previous);
+            if (!previous.hidden()) {
+                logVisibleChange(id);
+            }
+        }
+        return previous;
+    }
+
+    private static boolean sameListing(PortalEntry a, PortalEntry b) {
+        return a.name().equals(b.name()) && a.dim().equals(b.dim()) && a.pos().equals(b.pos());
+    }
+
+    private void index(PortalEntry entry) {
+        allEntries.add(entry);
+        if (!entry.hidden()) {
+            visibleEntries.add(entry);
+            for (String gram : nameGrams(entry)) {
+                nameGrams.computeIfAbsent(gram, k -> new EntryList()).add(entry);
+            }
+        }
+        DimensionIndex index = dimensions.computeIfAbsent(entry.dim(), k -> new DimensionIndex());
+        index.entries.add(entry);
+        if (!entry.hidden()) {
+            index.visibleCount++;
+        }
+        index.cells.computeIfAbsent(cellKey(entry.pos()), k -> new EntryList()).add(entry);
+    }
+
+    private void unindex(PortalEntry entry) {
+        allEntries.remove(entry.id());
+        if (!entry.hidden()) {
+            visibleEntries.remove(entry.id());
+            for (String gram : nameGrams(entry)) {
+                EntryList list = nameGrams.get(gram);
+                if (list == null) continue;
+                list.remove(entry.id());
+                if (list.isEmpty()) {
+                    nameGrams.remove(gram);
+                }
+            }
+        }
+        DimensionIndex index = dimensions.get(entry.dim());
+        if (index == null) return;
+
+        index.entries.remove(entry.id());
+        if (!entry.hidden()) {
+            index.visibleCount--;
+        }
+        long key = cellKey(entry.pos());
+        EntryList cell = index.cells.get(key);
+        if (cell != null) {
+            cell.remove(entry.id());
+            if (cell.isEmpty()) {
+                index.cells.remove(key);
             }
         }
+        if (index.entries.isEmpty()) {
+            dimensions.remove(entry.dim());
+        }
+    }
+
+    // ---------- Change log ----------
+
+    public long getVisibleVersion() {
+        return visibleVersion;
+    }
+
+    /**
+     * Ids whose visible listing changed since {@code version}, or null when the log no longer
+     * reaches back that far and the caller has to drop everything it sent.
+     */
+    @Nullable
+    public Collection<UUID> visibleChangesSince(long version) {
+        if (version < 0L || version > visibleVersion) return null;
+        long missed = visibleVersion - version;
+        if (missed > changeLog.size()) return null;
+
+        Set<UUID> changed = new HashSet<>();
+        Iterator<UUID> it = changeLog.descendingIterator();
+        for (long i = 0; i < missed; i++) {
+            changed.add(it.next());
+        }
+        return changed;
+    }
+
+    private void logVisibleChange(UUID id) {
+        visibleVersion++;
+        changeLog.addLast(id);
+        if (changeLog.size() > CHANGE_LOG_SIZE) {
+            changeLog.removeFirst();
+        }
+    }
 
+    // ---------- Validation ----------
+
+    // Full sweep over every entry; returns how many were removed.
+    public int pruneMissingPortals(MinecraftServer server) {
+        List<UUID> missing = new ArrayList<>();
+
+        for (PortalEntry entry : portals.values()) {
+            if (isMissing(server, entry)) {
+                missing.add(entry.id());
+            }
+        }
+
+        missing.forEach(this::delete);
+        if (!missing.isEmpty()) {
+            setDirty();
+        }
+        return missing.size();
+    }
+
+    public void queueValidation(@Nullable UUID id) {
+        if (id != null && queuedValidation.add(id)) {
+            pendingValidation.add(id);
+        }
+    }
+
+    private void queueChunk(ResourceKey<Level> dim, ChunkPos chunkPos) {
+        DimensionIndex index = dimensions.get(dim);
+        if (index == null) return;
+
+        EntryList cell = index.cells.get(cellKey(chunkPos.getMinBlockX() >> CELL_SHIFT, chunkPos.getMinBlockZ() >> CELL_SHIFT));
+        if (cell == null) return;
+
+        for (PortalEntry entry : cell.entries) {
+            if (ChunkPos.asLong(entry.pos()) == chunkPos.toLong()) {
+                queueValidation(entry.id());
+            }
+        }
+    }
+
+    // Runs at the end of the tick, after chunk unloads, so an unloaded core is never mistaken for a missing one.
+    private void validatePending(MinecraftServer server) {
+        boolean changed = false;
+        for (int i = 0; i < VALIDATIONS_PER_TICK && !pendingValidation.isEmpty(); i++) {
+            UUID id = pendingValidation.poll();
+            queuedValidation.remove(id);
+
+            PortalEntry entry = portals.get(id);
+            if (entry != null && isMissing(server, entry)) {
+                delete(id);
+                changed = true;
+            }
+        }
         if (changed) {
             setDirty();
         }
-        return changed;
+    }
+
+    // Entries in unloaded chunks are kept: they are checked again when the chunk loads.
+    private static boolean isMissing(MinecraftServer server, PortalEntry entry) {
+        ServerLevel level = server.getLevel(entry.dim());
+        if (level == null) return true;
+        if (!level.hasChunkAt(entry.pos())) return false;
+
+        if (!(level.getBlockEntity(entry.pos()) instanceof PortalCoreBlockEntity core)) return true;
+        return core.getPortalId() != null && !entry.id().equals(core.getPortalId());
     }
 
     public PortalEntry get(UUID id) {
@@ -97,20 +540,7 @@ public class PortalRegistrySavedData extends SavedData {
     }
 
     private PortalEntry findDarkDimensionTarget() {
-        PortalEntry best = null;
-        double bestDistance = Double.MAX_VALUE;
-
-        for (PortalEntry entry : portals.values()) {
-            if (!entry.dim().equals(UniverseGateDimensions.RIFT)) continue;
-
-            double distance = entry.pos().distSqr(BlockPos.ZERO);
-            if (best == null || distance < bestDistance) {
-                best = entry;
-                bestDistance = distance;
-            }
-        }
-
-        return best;
+        return findNearest(UniverseGateDimensions.RIFT, BlockPos.ZERO);
     }
 
     public void upsertPortal(ServerLevel level, UUID id, String name, BlockPos pos) {
@@ -119,7 +549,7 @@ public class PortalRegistrySavedData extends SavedData {
 
     public void upsertPortal(ServerLevel level, UUID id, String name, BlockPos pos, boolean hidden) {
         ResourceKey<Level> dim = level.dimension();
-        portals.put(id, new PortalEntry(id, name == null ? "" : name, dim, pos, hidden));
+        put(new PortalEntry(id, name == null ? "" : name, dim, pos.immutable(), hidden));
         setDirty();
     }
 
@@ -127,13 +557,13 @@ public class PortalRegistrySavedData extends SavedData {
         PortalEntry existing = portals.get(id);
         if (existing == null) return;
         if (existing.hidden() == hidden) return;
-        portals.put(id, new PortalEntry(existing.id(), existing.name(), existing.dim(), existing.pos(), hidden));
+        put(new PortalEntry(existing.id(), existing.name(), existing.dim(), existing.pos(), hidden));
         setDirty();
     }
 
     public void removePortal(UUID id) {
         if (id == null) return;
-        if (portals.remove(id) != null) setDirty();
+        if (delete(id) != null) setDirty();
     }
 
     // ---------- Save/Load ----------
@@ -179,8 +609,11 @@ public class PortalRegistrySavedData extends SavedData {
 
             boolean hidden = p.contains("Hidden") && p.getBoolean("Hidden");
 
-            data.portals.put(id, new PortalEntry(id, name, dim, pos, hidden));
+            data.put(new PortalEntry(id, name, dim, pos, hidden));
         }
+        // No client holds a copy yet: start from version 0 with an empty log.
+        data.visibleVersion = 0L;
+        data.changeLog.clear();
 
         return data;
     }
@@ -2,15 +2,18 @@ package fr.geomtech.universegate;
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.nbt.CompoundTag;
 import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.ExplosionDamageCalculator;
 import net.minecraft.world.level.Level;
 
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public final class PortalRiftHelper {
 
@@ -24,34 +27,17 @@ public final class PortalRiftHelper {
     private static final double RIFT_UNSTABLE_EXPONENT = 4.0D;
     private static final int RIFT_SURFACE_SAMPLE_RADIUS = 24;
     private static final int RIFT_SURFACE_SAMPLE_STEP = 8;
-    private static final Map<ResourceKey<Level>, Map<BlockPos, PendingRiftCollapse>> PENDING_RIFT_COLLAPSES = new HashMap<>();
+    static final String RIFT_COLLAPSE_TASK = "rift_collapse";
+    private static final Map<ResourceKey<Level>, Set<BlockPos>> PENDING_RIFT_COLLAPSES = new HashMap<>();
 
     private PortalRiftHelper() {}
 
-    private record PendingRiftCollapse(BlockPos corePos, long startTick, long explodeTick) {}
-
     public static Optional<ChargedLightningRodBlockEntity> findNearestChargedRod(ServerLevel level, BlockPos portalPos, int radius) {
         BlockPos fixed = portalPos.above(6);
         if (level.getBlockEntity(fixed) instanceof ChargedLightningRodBlockEntity fixedRod && fixedRod.hasCharge()) {
             return Optional.of(fixedRod);
         }
-        ChargedLightningRodBlockEntity best = null;
-        double bestDist = Double.MAX_VALUE;
-        for (int dy = -radius; dy <= radius; dy++) {
-            for (int dx = -radius; dx <= radius; dx++) {
-                for (int dz = -radius; dz <= radius; dz++) {
-                    BlockPos p = portalPos.offset(dx, dy, dz);
-                    if (!(level.getBlockEntity(p) instanceof ChargedLightningRodBlockEntity be)) continue;
-                    if (!be.hasCharge()) continue;
-                    double dist = p.distSqr(portalPos);
-                    if (dist < bestDist) {
-                        bestDist = dist;
-                        best = be;
-                    }
-                }
-            }
-        }
-        return Optional.ofNullable(best);
+        return ChargedRodIndex.findNearest(level, portalPos, radius);
     }
 
     public static boolean tryConsumeChargeAndOpenRift(ServerLevel level, BlockPos corePos, int radius) {
@@ -137,41 +123,46 @@ public final class PortalRiftHelper {
         scheduleRiftCollapse(riftLevel, corePos);
     }
 
-    public static void tickWorld(ServerLevel level) {
-        Map<BlockPos, PendingRiftCollapse> scheduled = PENDING_RIFT_COLLAPSES.get(level.dimension());
-        if (scheduled == null || scheduled.isEmpty()) return;
+    // One step every sound interval until the collapse, driven by DeadlineScheduler so it survives a restart.
+    static void onRiftCollapseStep(MinecraftServer server, CompoundTag data) {
+        ServerLevel level = DeadlineScheduler.level(server, data);
+        if (level == null) return;
 
+        BlockPos corePos = DeadlineScheduler.pos(data);
+        long startTick = data.getLong("Start");
+        long explodeTick = data.getLong("Explode");
         long now = level.getGameTime();
-        Iterator<Map.Entry<BlockPos, PendingRiftCollapse>> it = scheduled.entrySet().iterator();
-        while (it.hasNext()) {
-            PendingRiftCollapse collapse = it.next().getValue();
-            if (now >= collapse.explodeTick()) {
-                detonateRiftArrivalPortal(level, collapse.corePos());
-                it.remove();
-                continue;
-            }
-
-            long elapsed = now - collapse.startTick();
-            if (elapsed > 0L && elapsed % RIFT_UNSTABLE_SOUND_INTERVAL_TICKS == 0L) {
-                double progress = Math.min(1.0D, (double) elapsed / (double) RIFT_COLLAPSE_DELAY_TICKS);
-                float volume = computeUnstableVolume(progress);
-                ModSounds.playAt(level, collapse.corePos(), ModSounds.PORTAL_UNSTABLE, volume, RIFT_UNSTABLE_PITCH);
+        Set<BlockPos> scheduled = PENDING_RIFT_COLLAPSES.computeIfAbsent(level.dimension(), ignored -> new HashSet<>());
+        if (now >= explodeTick) {
+            scheduled.remove(corePos);
+            if (scheduled.isEmpty()) {
+                PENDING_RIFT_COLLAPSES.remove(level.dimension());
             }
+            detonateRiftArrivalPortal(level, corePos);
+            return;
         }
+        scheduled.add(corePos);
 
-        if (scheduled.isEmpty()) {
-            PENDING_RIFT_COLLAPSES.remove(level.dimension());
+        long elapsed = now - startTick;
+        if (elapsed > 0L) {
+            double progress = Math.min(1.0D, (double) elapsed / (double) RIFT_COLLAPSE_DELAY_TICKS);
+            float volume = computeUnstableVolume(progress);
+            ModSounds.playAt(level, corePos, ModSounds.PORTAL_UNSTABLE, volume, RIFT_UNSTABLE_PITCH);
         }
+        DeadlineScheduler.schedule(server, Math.min(now + RIFT_UNSTABLE_SOUND_INTERVAL_TICKS, explodeTick), RIFT_COLLAPSE_TASK, data);
     }
 
     private static void scheduleRiftCollapse(ServerLevel riftLevel, BlockPos corePos) {
-        Map<BlockPos, PendingRiftCollapse> byDimension =
-                PENDING_RIFT_COLLAPSES.computeIfAbsent(riftLevel.dimension(), ignored -> new HashMap<>());
+        Set<BlockPos> byDimension =
+                PENDING_RIFT_COLLAPSES.computeIfAbsent(riftLevel.dimension(), ignored -> new HashSet<>());
         BlockPos key = corePos.immutable();
-        if (byDimension.containsKey(key)) return;
+        if (!byDimension.add(key)) return;
 
         long now = riftLevel.getGameTime();
-        byDimension.put(key, new PendingRiftCollapse(key, now, now + RIFT_COLLAPSE_DELAY_TICKS));
+        CompoundTag data = DeadlineScheduler.positionData(riftLevel, key);
+        data.putLong("Start", now);
+        data.putLong("Explode", now + RIFT_COLLAPSE_DELAY_TICKS);
+        DeadlineScheduler.schedule(riftLevel.getServer(), now + RIFT_UNSTABLE_SOUND_INTERVAL_TICKS, RIFT_COLLAPSE_TASK, data);
         ModSounds.playAt(riftLevel, key, ModSounds.PORTAL_UNSTABLE, RIFT_UNSTABLE_MIN_VOLUME, RIFT_UNSTABLE_PITCH);
     }
 
@@ -221,7 +212,7 @@ public final class PortalRiftHelper {
 
         // Break 30% of frame blocks
         if (match.isPresent()) {
-            var frameBlocks = PortalFrameHelper.collectFrame(match.get(), corePos);
+            var frameBlocks = match.get().frame();
             var rand = riftLevel.getRandom();
             for (BlockPos p : frameBlocks) {
                 if (rand.nextFloat() <= 0.3F && riftLevel.getBlockState(p).is(ModBlocks.PORTAL_FRAME)) {
@@ -327,12 +318,8 @@ public final class PortalRiftHelper {
     }
 
     private static PortalRegistrySavedData.PortalEntry findRiftPortal(PortalRegistrySavedData reg) {
-        for (PortalRegistrySavedData.PortalEntry entry : reg.listAll()) {
-            if (entry.dim().equals(UniverseGateDimensions.RIFT)) {
-                return entry;
-            }
-        }
-        return null;
+        var riftPortals = reg.listInDimension(UniverseGateDimensions.RIFT);
+        return riftPortals.isEmpty() ? null : riftPortals.iterator().next();
     }
 
     static void placeRiftFrame(ServerLevel level, BlockPos corePos, Direction right) {
@@ -359,14 +346,6 @@ public final class PortalRiftHelper {
     }
 
     private static BlockPos findCoreNear(ServerLevel level, BlockPos center, int rXZ, int rY) {
-        for (int dy = -rY; dy <= rY; dy++) {
-            for (int dx = -rXZ; dx <= rXZ; dx++) {
-                for (int dz = -rXZ; dz <= rXZ; dz++) {
-                    BlockPos p = center.offset(dx, dy, dz);
-                    if (level.getBlockState(p).is(ModBlocks.PORTAL_CORE)) return p;
-                }
-            }
-        }
-        return null;
+        return PortalStructureTracker.findCoreNear(level, center, rXZ, rY);
     }
 }
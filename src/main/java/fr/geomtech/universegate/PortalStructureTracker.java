@@ -0,0 +1,245 @@
+package fr.geomtech.universegate;
+
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerBlockEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Per-level portal indexes. Loaded cores and keyboards are bucketed by chunk, and the frame and
+ * interior of every matched portal map back to their core, so "which core owns this block"
+ * is a hash lookup instead of a cube of block reads. It also maps the positions a core's cached
+ * structure depends on to that core: a block swap there drops the cached frame match and ports.
+ */
+public final class PortalStructureTracker {
+
+    private static final Map<ResourceKey<Level>, PortalStructureTracker> TRACKERS = new HashMap<>();
+    private static final long NO_CORE = Long.MAX_VALUE;
+
+    private final ServerLevel level;
+    private final Long2ObjectOpenHashMap<List<PortalCoreBlockEntity>> watchers = new Long2ObjectOpenHashMap<>();
+    private final Long2LongOpenHashMap coreByComponent = new Long2LongOpenHashMap();
+    private final Long2ObjectOpenHashMap<LongArrayList> coresByChunk = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<LongArrayList> keyboardsByChunk = new Long2ObjectOpenHashMap<>();
+
+    private PortalStructureTracker(ServerLevel level) {
+        this.level = level;
+        coreByComponent.defaultReturnValue(NO_CORE);
+    }
+
+    public static void register() {
+        ServerWorldEvents.UNLOAD.register((server, world) -> TRACKERS.remove(world.dimension()));
+        ServerBlockEntityEvents.BLOCK_ENTITY_LOAD.register((blockEntity, world) -> {
+            if (blockEntity instanceof PortalCoreBlockEntity) {
+                add(get(world).coresByChunk, blockEntity.getBlockPos());
+            } else if (blockEntity instanceof PortalKeyboardBlockEntity) {
+                add(get(world).keyboardsByChunk, blockEntity.getBlockPos());
+            }
+        });
+        ServerBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register((blockEntity, world) -> {
+            PortalStructureTracker tracker = TRACKERS.get(world.dimension());
+            if (tracker == null || tracker.level != world) return;
+
+            if (blockEntity instanceof PortalCoreBlockEntity) {
+                remove(tracker.coresByChunk, blockEntity.getBlockPos());
+            } else if (blockEntity instanceof PortalKeyboardBlockEntity) {
+                remove(tracker.keyboardsByChunk, blockEntity.getBlockPos());
+            }
+        });
+    }
+
+    private static PortalStructureTracker get(ServerLevel level) {
+        PortalStructureTracker tracker = TRACKERS.get(level.dimension());
+        if (tracker == null || tracker.level != level) {
+            tracker = new PortalStructureTracker(level);
+            TRACKERS.put(level.dimension(), tracker);
+        }
+        return tracker;
+    }
+
+    // ---------- Lookups ----------
+
+    // Core whose matched frame or interior contains this position, if that portal has been matched.
+    @Nullable
+    public static BlockPos findOwningCore(ServerLevel level, BlockPos componentPos) {
+        PortalStructureTracker tracker = TRACKERS.get(level.dimension());
+        if (tracker == null || tracker.level != level) return null;
+
+        long corePos = tracker.coreByComponent.get(componentPos.asLong());
+        return corePos == NO_CORE ? null : BlockPos.of(corePos);
+    }
+
+    // The owning core when known, otherwise the nearest loaded core in the box.
+    @Nullable
+    public static BlockPos findCoreNear(ServerLevel level, BlockPos center, int radiusXZ, int radiusY) {
+        return findCoreNear(level, center, radiusXZ, radiusY, true);
+    }
+
+    @Nullable
+    public static BlockPos findCoreNear(ServerLevel level, BlockPos center, int radiusXZ, int radiusY, boolean loadChunks) {
+        BlockPos owner = findOwningCore(level, center);
+        if (owner != null) return owner;
+        return nearest(coresNear(level, center, radiusXZ, radiusY, loadChunks), center);
+    }
+
+    @Nullable
+    public static BlockPos findKeyboardNear(ServerLevel level, BlockPos center, int radiusXZ, int radiusY) {
+        return nearest(keyboardsNear(level, center, radiusXZ, radiusY, true), center);
+    }
+
+    // Loaded portal cores in the box. With loadChunks, the chunks it covers are loaded first,
+    // like the block scans this replaces; without it, unloaded chunks are skipped.
+    public static List<BlockPos> coresNear(ServerLevel level, BlockPos center, int radiusXZ, int radiusY, boolean loadChunks) {
+        return inBox(level, center, radiusXZ, radiusY, loadChunks, false);
+    }
+
+    public static List<BlockPos> keyboardsNear(ServerLevel level, BlockPos center, int radiusXZ, int radiusY, boolean loadChunks) {
+        return inBox(level, center, radiusXZ, radiusY, loadChunks, true);
+    }
+
+    private static List<BlockPos> inBox(ServerLevel level,
+                                        BlockPos center,
+                                        int radiusXZ,
+                                        int radiusY,
+                                        boolean loadChunks,
+                                        boolean keyboards) {
+        int minX = center.getX() - radiusXZ;
+        int maxX = center.getX() + radiusXZ;
+        int minZ = center.getZ() - radiusXZ;
+        int maxZ = center.getZ() + radiusXZ;
+        List<BlockPos> result = new ArrayList<>(1);
+
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                if (loadChunks) {
+                    // Loading the chunk registers its block entities through BLOCK_ENTITY_LOAD.
+                    level.getChunk(chunkX, chunkZ);
+                }
+
+                PortalStructureTracker tracker = TRACKERS.get(level.dimension());
+                if (tracker == null || tracker.level != level) return result;
+
+                LongArrayList positions = (keyboards ? tracker.keyboardsByChunk : tracker.coresByChunk)
+                        .get(ChunkPos.asLong(chunkX, chunkZ));
+                if (positions == null) continue;
+
+                for (int i = 0; i < positions.size(); i++) {
+                    long pos = positions.getLong(i);
+                    int x = BlockPos.getX(pos);
+                    int y = BlockPos.getY(pos);
+                    int z = BlockPos.getZ(pos);
+                    if (x >= minX && x <= maxX && z >= minZ && z <= maxZ && Math.abs(y - center.getY()) <= radiusY) {
+                        result.add(BlockPos.of(pos));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Nullable
+    private static BlockPos nearest(List<BlockPos> candidates, BlockPos center) {
+        BlockPos best = null;
+        double bestDist = Double.MAX_VALUE;
+        for (BlockPos candidate : candidates) {
+            double dist = candidate.distSqr(center);
+            if (dist < bestDist) {
+                bestDist = dist;
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private static void add(Long2ObjectOpenHashMap<LongArrayList> buckets, BlockPos pos) {
+        LongArrayList positions = buckets.computeIfAbsent(ChunkPos.asLong(pos), k -> new LongArrayList(1));
+        long key = pos.asLong();
+        if (!positions.contains(key)) {
+            positions.add(key);
+        }
+    }
+
+    private static void remove(Long2ObjectOpenHashMap<LongArrayList> buckets, BlockPos pos) {
+        long chunkKey = ChunkPos.asLong(pos);
+        LongArrayList positions = buckets.get(chunkKey);
+        if (positions == null) return;
+
+        positions.rem(pos.asLong());
+        if (positions.isEmpty()) {
+            buckets.remove(chunkKey);
+        }
+    }
+
+    // ---------- Structure watch ----------
+
+    static void watch(ServerLevel level,
+                      PortalCoreBlockEntity core,
+                      LongOpenHashSet positions,
+                      Optional<PortalFrameDetector.FrameMatch> match) {
+        PortalStructureTracker tracker = get(level);
+        LongIterator iterator = positions.iterator();
+        while (iterator.hasNext()) {
+            tracker.watchers.computeIfAbsent(iterator.nextLong(), k -> new ArrayList<>(1)).add(core);
+        }
+
+        long corePos = core.getBlockPos().asLong();
+        match.ifPresent(found -> {
+            found.frame().forEach(pos -> tracker.coreByComponent.put(pos.asLong(), corePos));
+            found.interior().forEach(pos -> tracker.coreByComponent.put(pos.asLong(), corePos));
+        });
+    }
+
+    static void unwatch(ServerLevel level,
+                        PortalCoreBlockEntity core,
+                        LongOpenHashSet positions,
+                        Optional<PortalFrameDetector.FrameMatch> match) {
+        PortalStructureTracker tracker = TRACKERS.get(level.dimension());
+        if (tracker == null || tracker.level != level) return;
+
+        long corePos = core.getBlockPos().asLong();
+        match.ifPresent(found -> {
+            found.frame().forEach(pos -> tracker.coreByComponent.remove(pos.asLong(), corePos));
+            found.interior().forEach(pos -> tracker.coreByComponent.remove(pos.asLong(), corePos));
+        });
+
+        LongIterator iterator = positions.iterator();
+        while (iterator.hasNext()) {
+            long key = iterator.nextLong();
+            List<PortalCoreBlockEntity> cores = tracker.watchers.get(key);
+            if (cores != null && cores.remove(core) && cores.isEmpty()) {
+                tracker.watchers.remove(key);
+            }
+        }
+    }
+
+    public static void onBlockStateChange(ServerLevel level, BlockPos pos, BlockState oldState, BlockState newState) {
+        // State-only changes (frame lighting, blinking) never change the structure.
+        if (oldState.getBlock() == newState.getBlock()) return;
+
+        PortalStructureTracker tracker = TRACKERS.get(level.dimension());
+        if (tracker == null || tracker.level != level) return;
+
+        List<PortalCoreBlockEntity> cores = tracker.watchers.get(pos.asLong());
+        if (cores == null) return;
+
+        for (PortalCoreBlockEntity core : List.copyOf(cores)) {
+            core.invalidateStructure();
+        }
+    }
+}
@@ -1,9 +1,19 @@
 package fr.geomtech.universegate;
 
+import com.mojang.brigadier.context.CommandContext;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.ChatFormatting;
 import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
@@ -17,14 +27,22 @@ import net.minecraft.world.entity.RelativeMovement;
 import net.minecraft.world.entity.projectile.AbstractArrow;
 import net.minecraft.world.entity.projectile.ThrownEnderpearl;
 import net.minecraft.world.entity.vehicle.AbstractMinecart;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
+import org.jetbrains.annotations.Nullable;
 
 import fr.geomtech.universegate.UniverseGateDimensions;
 import fr.geomtech.universegate.PortalRiftHelper;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 
@@ -56,8 +74,82 @@ public final class PortalTeleportHandler {
     private static final int UNSTABLE_SLOWNESS_DURATION_TICKS = 20 * 5;
     private static final int UNSTABLE_SLOWNESS_AMPLIFIER = 2; // slowness III
 
+    // A field is up to 12 blocks: each one calls in for the same entity during the same tick.
+    private static final long TELEPORT_COOLDOWN_TICKS = 10L;
+    private static final long ATTEMPT_GUARD_PRUNE_TICKS = 20L * 10L;
+
+    // Entity UUID -> first game tick at which that entity may run the pipeline again.
+    // The UUID survives a dimension change, where the entity is recreated under a new id.
+    private static final Object2LongOpenHashMap<UUID> NEXT_ATTEMPT_TICK = new Object2LongOpenHashMap<>();
+    private static long lastAttemptGuardPrune = 0L;
+    private static long teleportAttempts = 0L;
+    private static long suppressedDuplicates = 0L;
+
+    private record Crossing(Entity entity, BlockPos fieldPos) {}
+
+    private record Destination(PortalRegistrySavedData.PortalEntry entry,
+                               ServerLevel level,
+                               @Nullable TeleportTransform transform,
+                               boolean rift) {}
+
+    // Source dimension -> source core -> entities that touched its field this tick.
+    private static final Map<ResourceKey<Level>, Map<BlockPos, List<Crossing>>> PENDING_CROSSINGS = new HashMap<>();
+
     private PortalTeleportHandler() {}
 
+    public static void register() {
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            PENDING_CROSSINGS.clear();
+            NEXT_ATTEMPT_TICK.clear();
+            lastAttemptGuardPrune = 0L;
+        });
+        // A dimension change unloads the old entity too: keep its cooldown for the new one.
+        ServerEntityEvents.ENTITY_UNLOAD.register((entity, world) -> {
+            if (entity.getRemovalReason() != Entity.RemovalReason.CHANGED_DIMENSION) {
+                NEXT_ATTEMPT_TICK.removeLong(entity.getUUID());
+            }
+        });
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> dispatcher.register(
+                Commands.literal("universegate")
+                        .then(Commands.literal("teleport")
+                                .requires(source -> source.hasPermission(2))
+                                .then(Commands.literal("stats").executes(PortalTeleportHandler::statsCommand)))
+        ));
+        ServerTickEvents.END_WORLD_TICK.register(PortalTeleportHandler::tickWorld);
+    }
+
+    private static int statsCommand(CommandContext<CommandSourceStack> context) {
+        long attempts = teleportAttempts;
+        long suppressed = suppressedDuplicates;
+        context.getSource().sendSuccess(() -> Component.literal(
+                "Teleportations : " + attempts + " tentatives, " + suppressed + " appels en double ignores."
+        ), false);
+        return (int) Math.min(Integer.MAX_VALUE, suppressed);
+    }
+
+    public static long getSuppressedDuplicates() {
+        return suppressedDuplicates;
+    }
+
+    // At most one pipeline run per entity per tick, and none during the cooldown after a teleport.
+    private static boolean claimAttempt(Entity entity, long now) {
+        if (now < NEXT_ATTEMPT_TICK.getLong(entity.getUUID())) {
+            suppressedDuplicates++;
+            return false;
+        }
+        NEXT_ATTEMPT_TICK.put(entity.getUUID(), now + 1L);
+        teleportAttempts++;
+
+        if (now - lastAttemptGuardPrune >= ATTEMPT_GUARD_PRUNE_TICKS) {
+            lastAttemptGuardPrune = now;
+            LongIterator iterator = NEXT_ATTEMPT_TICK.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.nextLong() <= now) iterator.remove();
+            }
+        }
+        return true;
+    }
+
     /** Appelé par PortalFieldBlock quand une entité touche le champ. */
     public static void tryTeleport(Entity entity, BlockPos fieldPos) {
         if (!(entity.level() instanceof ServerLevel sourceLevel)) return;
@@ -65,16 +157,7 @@ public final class PortalTeleportHandler {
         if (entity.isPassenger()) return;
 
         long now = sourceLevel.getGameTime();
-        UUID entityId = entity.getUUID();
-
-        boolean preserveProjectileMomentum = shouldPreserveProjectileMomentum(entity);
-        Vec3 preservedVelocity = entity.getDeltaMovement();
-        float preservedYaw = entity.getYRot();
-        float preservedPitch = entity.getXRot();
-        Vec3 projectileVelocityAfterTeleport = preservedVelocity;
-        float projectileYawAfterTeleport = preservedYaw;
-        float projectilePitchAfterTeleport = preservedPitch;
-        List<UUID> pursuingMobIds = List.of();
+        if (!claimAttempt(entity, now)) return;
 
         // 1) trouver le core associé au champ
         BlockPos corePos = findCoreNear(sourceLevel, fieldPos);
@@ -89,6 +172,27 @@ public final class PortalTeleportHandler {
             }
             return;
         }
+        if (core.getTargetPortalId() == null) return;
+
+        // Everything entering this portal during the tick crosses together at the end of it.
+        PENDING_CROSSINGS.computeIfAbsent(sourceLevel.dimension(), ignored -> new LinkedHashMap<>())
+                .computeIfAbsent(corePos.immutable(), ignored -> new ArrayList<>())
+                .add(new Crossing(entity, fieldPos.immutable()));
+    }
+
+    public static void tickWorld(ServerLevel level) {
+        Map<BlockPos, List<Crossing>> byCore = PENDING_CROSSINGS.remove(level.dimension());
+        if (byCore == null) return;
+
+        for (Map.Entry<BlockPos, List<Crossing>> group : byCore.entrySet()) {
+            transferGroup(level, group.getKey(), group.getValue());
+        }
+    }
+
+    // One destination resolution, chunk ticket and sound pair for the whole group.
+    private static void transferGroup(ServerLevel sourceLevel, BlockPos corePos, List<Crossing> crossings) {
+        if (!(sourceLevel.getBlockEntity(corePos) instanceof PortalCoreBlockEntity core)) return;
+        if (!core.isActive() || !core.isOutboundTravelEnabled()) return;
 
         UUID targetId = core.getTargetPortalId();
         if (targetId == null) return;
@@ -101,73 +205,183 @@ public final class PortalTeleportHandler {
             PortalConnectionManager.forceCloseOneSide(sourceLevel, corePos);
             return;
         }
+        Destination connected = resolveDestination(sourceLevel, core, corePos, targetEntry, true);
+        if (connected == null) {
+            PortalConnectionManager.forceCloseOneSide(sourceLevel, corePos);
+            return;
+        }
 
-        boolean unstableDamageRoll = false;
-        boolean instabilityTriggered = false;
-        if (core.isVortexUnstable(now)) {
-            boolean redirectToRift = sourceLevel.random.nextFloat() < UNSTABLE_RIFT_CHANCE;
-            boolean redirectToRandomPortal = sourceLevel.random.nextFloat() < UNSTABLE_RANDOM_PORTAL_CHANCE;
-            unstableDamageRoll = sourceLevel.random.nextFloat() < UNSTABLE_DAMAGE_CHANCE;
-
-            if (redirectToRandomPortal) {
-                PortalRegistrySavedData.PortalEntry randomEntry = pickRandomPortalDestination(
-                        sourceLevel.getServer(),
-                        registry,
-                        sourceLevel.random,
-                        core.getPortalId(),
-                        targetEntry.id()
-                );
-                if (randomEntry != null) {
-                    targetEntry = randomEntry;
-                    instabilityTriggered = true;
+        long now = sourceLevel.getGameTime();
+        List<Entity> movers = new ArrayList<>(crossings.size());
+        List<BlockPos> fieldPositions = new ArrayList<>(crossings.size());
+        Set<UUID> moverIds = new HashSet<>();
+        for (Crossing crossing : crossings) {
+            Entity entity = crossing.entity();
+            if (!entity.isAlive() || entity.isRemoved() || entity.isPassenger() || entity.level() != sourceLevel) continue;
+            if (!moverIds.add(entity.getUUID())) continue;
+            movers.add(entity);
+            fieldPositions.add(crossing.fieldPos());
+        }
+        if (movers.isEmpty()) return;
+
+        // Mobs chasing a crossing player go with the same batch.
+        int crossingCount = movers.size();
+        Map<UUID, ServerPlayer> pursuedPlayers = new HashMap<>();
+        for (int i = 0; i < crossingCount; i++) {
+            if (!(movers.get(i) instanceof ServerPlayer player)) continue;
+            for (UUID mobId : collectPursuingMobIds(sourceLevel, corePos, player)) {
+                Entity mob = sourceLevel.getEntity(mobId);
+                if (mob == null || !moverIds.add(mobId)) continue;
+                movers.add(mob);
+                fieldPositions.add(fieldPositions.get(i));
+                pursuedPlayers.put(mobId, player);
+            }
+        }
+
+        boolean playerPassed = false;
+        Set<Destination> reached = new LinkedHashSet<>();
+        ModSounds.playAt(sourceLevel, corePos, ModSounds.PORTAL_ENTITY_GOING_THROUGH, 0.9F, 1.0F);
+        for (int i = 0; i < movers.size(); i++) {
+            Entity entity = movers.get(i);
+            ServerPlayer pursuedPlayer = pursuedPlayers.get(entity.getUUID());
+
+            boolean unstableDamageRoll = false;
+            boolean instabilityTriggered = false;
+            Destination destination = connected;
+            if (core.isVortexUnstable(now)) {
+                boolean redirectToRift = sourceLevel.random.nextFloat() < UNSTABLE_RIFT_CHANCE;
+                boolean redirectToRandomPortal = sourceLevel.random.nextFloat() < UNSTABLE_RANDOM_PORTAL_CHANCE;
+                unstableDamageRoll = sourceLevel.random.nextFloat() < UNSTABLE_DAMAGE_CHANCE;
+
+                PortalRegistrySavedData.PortalEntry redirected = null;
+                if (redirectToRandomPortal) {
+                    PortalRegistrySavedData.PortalEntry randomEntry = pickRandomPortalDestination(
+                            sourceLevel.getServer(),
+                            registry,
+                            sourceLevel.random,
+                            core.getPortalId(),
+                            targetEntry.id()
+                    );
+                    if (randomEntry != null) redirected = randomEntry;
+                }
+                if (redirectToRift) {
+                    PortalRegistrySavedData.PortalEntry riftEntry =
+                            findRiftPortalDestination(sourceLevel.getServer(), registry, core.getPortalId());
+                    if (riftEntry != null) redirected = riftEntry;
+                }
+                if (redirected != null) {
+                    Destination redirectedDestination = resolveDestination(sourceLevel, core, corePos, redirected, false);
+                    if (redirectedDestination != null) {
+                        destination = redirectedDestination;
+                        instabilityTriggered = true;
+                    }
                 }
             }
 
-            if (redirectToRift) {
-                PortalRegistrySavedData.PortalEntry riftEntry =
-                        findRiftPortalDestination(sourceLevel.getServer(), registry, core.getPortalId());
-                if (riftEntry != null) {
-                    targetEntry = riftEntry;
-                    instabilityTriggered = true;
+            Entity arrived = teleportEntity(sourceLevel, corePos, entity, destination);
+            if (arrived == null) {
+                if (pursuedPlayer != null && entity instanceof Mob mob) {
+                    // Could not come along: fall back to walking through after the player.
+                    PortalPursuitTracker.trackMobTowardPortalField(sourceLevel, mob, fieldPositions.get(i), pursuedPlayer.getUUID());
                 }
+                continue;
+            }
+            reached.add(destination);
+            NEXT_ATTEMPT_TICK.put(entity.getUUID(), now + TELEPORT_COOLDOWN_TICKS);
+            if (entity instanceof ServerPlayer) playerPassed = true;
+
+            if (arrived instanceof Mob teleportedMob) {
+                if (pursuedPlayer != null) {
+                    PortalPursuitTracker.onMobFollowedThrough(destination.level(), teleportedMob, pursuedPlayer);
+                } else {
+                    PortalPursuitTracker.onMobTeleported(destination.level(), teleportedMob);
+                }
+            }
+
+            LivingEntity livingEntity = arrived instanceof LivingEntity living ? living : null;
+            if (unstableDamageRoll && livingEntity != null) {
+                livingEntity.hurt(destination.level().damageSources().magic(), UNSTABLE_DAMAGE_AMOUNT);
+                instabilityTriggered = true;
+            }
+            if (instabilityTriggered && livingEntity != null) {
+                applyUnstableDebuffs(livingEntity);
             }
         }
+        if (reached.isEmpty()) return;
 
-        boolean isRift = targetEntry.dim().equals(UniverseGateDimensions.RIFT);
+        for (Destination destination : reached) {
+            ModSounds.playAt(destination.level(), destination.entry().pos(), ModSounds.PORTAL_ENTITY_GOING_THROUGH, 0.9F, 1.05F);
+            if (destination.level().getBlockEntity(destination.entry().pos()) instanceof PortalCoreBlockEntity targetCore) {
+                targetCore.onEntityPassed(destination.level().getGameTime());
+            }
+        }
+        if (playerPassed) {
+            core.onPlayerPassedThrough(now);
+        } else {
+            core.onEntityPassed(now);
+        }
 
-        ServerLevel targetLevel = sourceLevel.getServer().getLevel(targetEntry.dim());
-        if (targetLevel == null) {
-            PortalConnectionManager.forceCloseOneSide(sourceLevel, corePos);
-            return;
+        for (Destination destination : reached) {
+            if (destination.rift()) {
+                PortalRiftHelper.handleRiftArrival(destination.level(), destination.entry().pos());
+            }
         }
+    }
 
-        // charger chunk destination (core)
-        targetLevel.getChunk(targetEntry.pos());
+    @Nullable
+    private static Destination resolveDestination(ServerLevel sourceLevel,
+                                                  PortalCoreBlockEntity core,
+                                                  BlockPos corePos,
+                                                  PortalRegistrySavedData.PortalEntry entry,
+                                                  boolean connectedTarget) {
+        ServerLevel targetLevel = sourceLevel.getServer().getLevel(entry.dim());
+        if (targetLevel == null) return null;
+
+        // Neighbors load in the background; the core's own chunk is normally held by the target's
+        // portal ticket already, so getChunk only blocks for targets that are not connected.
+        PortalChunkTickets.prefetchAround(targetLevel, entry.pos());
+        targetLevel.getChunk(entry.pos());
+
+        // Redirects from an unstable vortex are one-off targets and are not cached.
+        TeleportTransform transform = resolveTransform(core, sourceLevel, corePos, targetLevel, entry, connectedTarget);
+        return new Destination(entry, targetLevel, transform, entry.dim().equals(UniverseGateDimensions.RIFT));
+    }
+
+    // Moves one entity, keeping its offset in the portal plane. Returns the entity as it exists at the destination.
+    @Nullable
+    private static Entity teleportEntity(ServerLevel sourceLevel, BlockPos corePos, Entity entity, Destination destination) {
+        ServerLevel targetLevel = destination.level();
+        BlockPos targetPos = destination.entry().pos();
+        UUID entityId = entity.getUUID();
+
+        boolean preserveProjectileMomentum = shouldPreserveProjectileMomentum(entity);
+        Vec3 preservedVelocity = entity.getDeltaMovement();
+        float preservedYaw = entity.getYRot();
+        float preservedPitch = entity.getXRot();
+        Vec3 projectileVelocityAfterTeleport = preservedVelocity;
+        float projectileYawAfterTeleport = preservedYaw;
+        float projectilePitchAfterTeleport = preservedPitch;
 
         // 4) point d’arrivée (orienté selon le portail)
-        double x = targetEntry.pos().getX() + 0.5;
-        double y = targetEntry.pos().getY() + 1.0;
-        double z = targetEntry.pos().getZ() + 0.5;
+        double x = targetPos.getX() + 0.5;
+        double y = targetPos.getY() + 1.0;
+        double z = targetPos.getZ() + 0.5;
         float yaw = preserveProjectileMomentum ? preservedYaw : entity.getYRot();
         float pitch = preserveProjectileMomentum ? preservedPitch : entity.getXRot();
 
-        var sourceMatch = PortalFrameDetector.find(sourceLevel, corePos);
-        var targetMatch = PortalFrameDetector.find(targetLevel, targetEntry.pos());
-        if (sourceMatch.isPresent() && targetMatch.isPresent()) {
-            int sideSign = sideSignFromEntry(sourceMatch.get(), corePos, entity);
-            Direction sourceNormal = normalFromMatch(sourceMatch.get(), sideSign);
-            Direction sourceSurfaceRight = sourceNormal.getCounterClockWise();
-            PortalKeyboardBlockEntity targetKeyboard = findKeyboardNear(targetLevel, targetEntry.pos(), KEYBOARD_RADIUS);
-            Direction exitNormal = targetKeyboard != null
-                    ? normalFromKeyboard(targetMatch.get(), targetEntry.pos(), targetKeyboard.getBlockPos(), sideSign)
-                    : normalFromMatch(targetMatch.get(), sideSign);
-            Direction targetSurfaceRight = exitNormal.getCounterClockWise();
+        TeleportTransform transform = destination.transform();
+        if (transform != null) {
+            int sideSign = sideSignFromEntry(transform.sourceRight(), corePos, entity);
+            Exit exit = sideSign >= 0 ? transform.front() : transform.back();
+            Direction sourceSurfaceRight = exit.sourceSurfaceRight();
+            Direction exitNormal = exit.exitNormal();
+            Direction targetSurfaceRight = exit.targetSurfaceRight();
 
             if (preserveProjectileMomentum) {
                 projectileVelocityAfterTeleport = transformVelocityThroughPortal(
                         preservedVelocity,
                         sourceSurfaceRight,
-                        sourceNormal,
+                        exit.sourceNormal(),
                         targetSurfaceRight,
                         exitNormal
                 );
@@ -188,9 +402,9 @@ public final class PortalTeleportHandler {
                 exitOffset += PORTAL_MINECART_EXTRA_OFFSET;
             }
 
-            x = targetEntry.pos().getX() + 0.5 + targetSurfaceRight.getStepX() * mirroredLateral;
-            y = targetEntry.pos().getY() + 1.0 + clampedVertical;
-            z = targetEntry.pos().getZ() + 0.5 + targetSurfaceRight.getStepZ() * mirroredLateral;
+            x = targetPos.getX() + 0.5 + targetSurfaceRight.getStepX() * mirroredLateral;
+            y = targetPos.getY() + 1.0 + clampedVertical;
+            z = targetPos.getZ() + 0.5 + targetSurfaceRight.getStepZ() * mirroredLateral;
 
             x += exitNormal.getStepX() * exitOffset;
             z += exitNormal.getStepZ() * exitOffset;
@@ -199,64 +413,26 @@ public final class PortalTeleportHandler {
             }
         }
 
-        if (entity instanceof ServerPlayer player) {
-            pursuingMobIds = collectPursuingMobIds(sourceLevel, corePos, player);
-        }
-
-        ModSounds.playAt(sourceLevel, corePos, ModSounds.PORTAL_ENTITY_GOING_THROUGH, 0.9F, 1.0F);
         boolean teleported;
         if (entity instanceof ServerPlayer player) {
             teleported = player.teleportTo(targetLevel, x, y, z, Set.<RelativeMovement>of(), yaw, pitch);
         } else {
             teleported = entity.teleportTo(targetLevel, x, y, z, Set.<RelativeMovement>of(), yaw, pitch);
         }
-        if (!teleported) return;
+        if (!teleported) return null;
 
-        if (preserveProjectileMomentum) {
-            Entity teleportedEntity = targetLevel.getEntity(entityId);
-            if (teleportedEntity == null && entity.level() == targetLevel) {
-                teleportedEntity = entity;
-            }
-            if (teleportedEntity != null) {
-                teleportedEntity.setDeltaMovement(projectileVelocityAfterTeleport);
-                teleportedEntity.setYRot(projectileYawAfterTeleport);
-                teleportedEntity.setXRot(projectilePitchAfterTeleport);
-            }
-        }
-
-        if (entity instanceof Mob) {
-            Entity teleportedMobEntity = targetLevel.getEntity(entityId);
-            if (teleportedMobEntity instanceof Mob teleportedMob) {
-                PortalPursuitTracker.onMobTeleported(targetLevel, teleportedMob);
-            }
-        }
-
-        ModSounds.playAt(targetLevel, targetEntry.pos(), ModSounds.PORTAL_ENTITY_GOING_THROUGH, 0.9F, 1.05F);
-        if (entity instanceof ServerPlayer) {
-            core.onPlayerPassedThrough(now);
-        } else {
-            core.onEntityPassed(now);
-        }
-        if (targetLevel.getBlockEntity(targetEntry.pos()) instanceof PortalCoreBlockEntity targetCore) {
-            targetCore.onEntityPassed(targetLevel.getGameTime());
+        Entity arrived = targetLevel.getEntity(entityId);
+        if (arrived == null && entity.level() == targetLevel) {
+            arrived = entity;
         }
+        if (arrived == null) return null;
 
-        LivingEntity livingEntity = entity instanceof LivingEntity living ? living : null;
-        if (unstableDamageRoll && livingEntity != null) {
-            livingEntity.hurt(targetLevel.damageSources().magic(), UNSTABLE_DAMAGE_AMOUNT);
-            instabilityTriggered = true;
-        }
-        if (instabilityTriggered && livingEntity != null) {
-            applyUnstableDebuffs(livingEntity);
-        }
-
-        if (entity instanceof ServerPlayer player && !pursuingMobIds.isEmpty()) {
-            markPursuingMobsForPortalFollow(sourceLevel, fieldPos, player, pursuingMobIds);
-        }
-
-        if (isRift) {
-            PortalRiftHelper.handleRiftArrival(targetLevel, targetEntry.pos());
+        if (preserveProjectileMomentum) {
+            arrived.setDeltaMovement(projectileVelocityAfterTeleport);
+            arrived.setYRot(projectileYawAfterTeleport);
+            arrived.setXRot(projectilePitchAfterTeleport);
         }
+        return arrived;
     }
 
     private static void showBlockedDirectionMessage(ServerPlayer player) {
@@ -288,8 +464,76 @@ public final class PortalTeleportHandler {
         sourceCore.onEntityPassed(sourceLevel.getGameTime());
     }
 
-    private static int sideSignFromEntry(PortalFrameDetector.FrameMatch match, BlockPos corePos, Entity entity) {
-        double axisVelocity = match.right() == Direction.EAST
+    // ---------- Connection transform ----------
+
+    // Orientation of one crossing direction; everything per entity is arithmetic on these.
+    record Exit(Direction sourceNormal, Direction sourceSurfaceRight, Direction exitNormal, Direction targetSurfaceRight) {}
+
+    // Built once per connection and kept on the source core; front is for entities crossing along +normal.
+    record TeleportTransform(UUID connectionId,
+                             BlockPos targetCorePos,
+                             PortalFrameDetector.FrameMatch targetFrame,
+                             @Nullable BlockPos targetKeyboardPos,
+                             Direction sourceRight,
+                             Exit front,
+                             Exit back) {}
+
+    @Nullable
+    private static TeleportTransform resolveTransform(PortalCoreBlockEntity core,
+                                                      ServerLevel sourceLevel,
+                                                      BlockPos corePos,
+                                                      ServerLevel targetLevel,
+                                                      PortalRegistrySavedData.PortalEntry targetEntry,
+                                                      boolean cacheable) {
+        var targetMatch = PortalFrameDetector.find(targetLevel, targetEntry.pos());
+        if (targetMatch.isEmpty()) return null;
+
+        // The exit side follows the target keyboard, which lives in another core's area: look it up
+        // through the keyboard index on every crossing rather than trusting the cached one.
+        BlockPos targetKeyboardPos = findKeyboardNear(targetLevel, targetEntry.pos(), KEYBOARD_RADIUS);
+        TeleportTransform cached = core.getTeleportTransform();
+        // Matches are cached per core, so the same instance means the target frame has not changed.
+        if (cacheable
+                && cached != null
+                && cached.targetFrame() == targetMatch.get()
+                && Objects.equals(cached.targetKeyboardPos(), targetKeyboardPos)
+                && cached.targetCorePos().equals(targetEntry.pos())
+                && cached.connectionId().equals(core.getConnectionId())) {
+            return cached;
+        }
+
+        var sourceMatch = PortalFrameDetector.find(sourceLevel, corePos);
+        if (sourceMatch.isEmpty()) return null;
+
+        TeleportTransform transform = new TeleportTransform(
+                core.getConnectionId(),
+                targetEntry.pos().immutable(),
+                targetMatch.get(),
+                targetKeyboardPos,
+                sourceMatch.get().right(),
+                buildExit(sourceMatch.get(), targetMatch.get(), targetEntry.pos(), targetKeyboardPos, 1),
+                buildExit(sourceMatch.get(), targetMatch.get(), targetEntry.pos(), targetKeyboardPos, -1)
+        );
+        if (cacheable && core.getConnectionId() != null) {
+            core.setTeleportTransform(transform);
+        }
+        return transform;
+    }
+
+    private static Exit buildExit(PortalFrameDetector.FrameMatch sourceMatch,
+                                  PortalFrameDetector.FrameMatch targetMatch,
+                                  BlockPos targetCorePos,
+                                  @Nullable BlockPos targetKeyboardPos,
+                                  int sideSign) {
+        Direction sourceNormal = normalFromMatch(sourceMatch, sideSign);
+        Direction exitNormal = targetKeyboardPos != null
+                ? normalFromKeyboard(targetMatch, targetCorePos, targetKeyboardPos, sideSign)
+                : normalFromMatch(targetMatch, sideSign);
+        return new Exit(sourceNormal, sourceNormal.getCounterClockWise(), exitNormal, exitNormal.getCounterClockWise());
+    }
+
+    private static int sideSignFromEntry(Direction right, BlockPos corePos, Entity entity) {
+        double axisVelocity = right == Direction.EAST
                 ? entity.getDeltaMovement().z
                 : entity.getDeltaMovement().x;
 
@@ -299,7 +543,7 @@ public final class PortalTeleportHandler {
 
         double centerX = corePos.getX() + 0.5;
         double centerZ = corePos.getZ() + 0.5;
-        if (match.right() == Direction.EAST) {
+        if (right == Direction.EAST) {
             return entity.getZ() >= centerZ ? 1 : -1;
         }
         return entity.getX() >= centerX ? 1 : -1;
@@ -328,32 +572,27 @@ public final class PortalTeleportHandler {
     }
 
     private static BlockPos findCoreNear(ServerLevel level, BlockPos pos) {
+        // A field placed by a matched portal maps straight to its core.
+        BlockPos owner = PortalStructureTracker.findOwningCore(level, pos);
+        if (owner != null) return owner;
+
         BlockPos nearestActiveCore = null;
         double nearestActiveDistance = Double.MAX_VALUE;
         BlockPos nearestCore = null;
         double nearestCoreDistance = Double.MAX_VALUE;
 
-        for (int dy = -CORE_SEARCH_Y; dy <= CORE_SEARCH_Y; dy++) {
-            for (int dx = -CORE_SEARCH_XZ; dx <= CORE_SEARCH_XZ; dx++) {
-                for (int dz = -CORE_SEARCH_XZ; dz <= CORE_SEARCH_XZ; dz++) {
-                    BlockPos p = pos.offset(dx, dy, dz);
-                    if (!level.getBlockState(p).is(ModBlocks.PORTAL_CORE)) {
-                        continue;
-                    }
-
-                    double distance = p.distSqr(pos);
-                    if (distance < nearestCoreDistance) {
-                        nearestCoreDistance = distance;
-                        nearestCore = p;
-                    }
+        for (BlockPos p : PortalStructureTracker.coresNear(level, pos, CORE_SEARCH_XZ, CORE_SEARCH_Y, true)) {
+            double distance = p.distSqr(pos);
+            if (distance < nearestCoreDistance) {
+                nearestCoreDistance = distance;
+                nearestCore = p;
+            }
 
-                    if (distance < nearestActiveDistance
-                            && level.getBlockEntity(p) instanceof PortalCoreBlockEntity core
-                            && core.isActive()) {
-                        nearestActiveDistance = distance;
-                        nearestActiveCore = p;
-                    }
-                }
+            if (distance < nearestActiveDistance
+                    && level.getBlockEntity(p) instanceof PortalCoreBlockEntity core
+                    && core.isActive()) {
+                nearestActiveDistance = distance;
+                nearestActiveCore = p;
             }
         }
 
@@ -363,25 +602,18 @@ public final class PortalTeleportHandler {
         return nearestCore;
     }
 
-    private static PortalKeyboardBlockEntity findKeyboardNear(ServerLevel level, BlockPos corePos, int r) {
-        for (int dy = -KEYBOARD_SEARCH_Y; dy <= KEYBOARD_SEARCH_Y; dy++) {
-            for (int dx = -r; dx <= r; dx++) {
-                for (int dz = -r; dz <= r; dz++) {
-                    BlockPos p = corePos.offset(dx, dy, dz);
-                    var state = level.getBlockState(p);
-                    if (!state.is(ModBlocks.PORTAL_KEYBOARD) && !state.is(ModBlocks.PORTAL_NATURAL_KEYBOARD)) continue;
-                    if (level.getBlockEntity(p) instanceof PortalKeyboardBlockEntity kb) return kb;
-                }
-            }
-        }
-        return null;
+    @Nullable
+    private static BlockPos findKeyboardNear(ServerLevel level, BlockPos corePos, int r) {
+        BlockPos keyboardPos = PortalStructureTracker.findKeyboardNear(level, corePos, r, KEYBOARD_SEARCH_Y);
+        if (keyboardPos == null) return null;
+        return level.getBlockEntity(keyboardPos) instanceof PortalKeyboardBlockEntity ? keyboardPos : null;
     }
 
     private static PortalRegistrySavedData.PortalEntry findRiftPortalDestination(MinecraftServer server,
                                                                                   PortalRegistrySavedData registry,
                                                                                   UUID sourcePortalId) {
-        for (PortalRegistrySavedData.PortalEntry entry : registry.listAll()) {
-            if (!entry.dim().equals(UniverseGateDimensions.RIFT)) continue;
+        // Copied: loading a candidate's chunk can register more rift portals.
+        for (PortalRegistrySavedData.PortalEntry entry : List.copyOf(registry.listInDimension(UniverseGateDimensions.RIFT))) {
             if (sourcePortalId != null && sourcePortalId.equals(entry.id())) continue;
             if (!isPortalEntryUsable(server, entry)) continue;
             return entry;
@@ -394,16 +626,10 @@ public final class PortalTeleportHandler {
                                                                                     RandomSource random,
                                                                                     UUID sourcePortalId,
                                                                                     UUID currentTargetId) {
-        List<PortalRegistrySavedData.PortalEntry> candidates = new ArrayList<>();
-        for (PortalRegistrySavedData.PortalEntry entry : registry.listAll()) {
-            if (sourcePortalId != null && sourcePortalId.equals(entry.id())) continue;
-            if (currentTargetId != null && currentTargetId.equals(entry.id())) continue;
-            if (!isPortalEntryUsable(server, entry)) continue;
-            candidates.add(entry);
-        }
-
-        if (candidates.isEmpty()) return null;
-        return candidates.get(random.nextInt(candidates.size()));
+        // Chunks are only loaded for the entries tried before the first usable one.
+        return registry.pickRandom(random, entry -> (sourcePortalId == null || !sourcePortalId.equals(entry.id()))
+                && (currentTargetId == null || !currentTargetId.equals(entry.id()))
+                && isPortalEntryUsable(server, entry));
     }
 
     private static boolean isPortalEntryUsable(MinecraftServer server, PortalRegistrySavedData.PortalEntry entry) {
@@ -449,19 +675,6 @@ public final class PortalTeleportHandler {
         return mob.distanceToSqr(portalCenter.x, portalCenter.y, portalCenter.z) <= PURSUING_MOB_MAX_PORTAL_DISTANCE_SQR;
     }
 
-    private static void markPursuingMobsForPortalFollow(ServerLevel sourceLevel,
-                                                        BlockPos fieldPos,
-                                                        ServerPlayer player,
-                                                        List<UUID> pursuingMobIds) {
-        for (UUID mobId : pursuingMobIds) {
-            Entity candidate = sourceLevel.getEntity(mobId);
-            if (!(candidate instanceof Mob mob)) continue;
-            if (!mob.isAlive()) continue;
-            if (mob.getTarget() != player) continue;
-            PortalPursuitTracker.trackMobTowardPortalField(sourceLevel, mob, fieldPos, player.getUUID());
-        }
-    }
-
     private static void applyUnstableDebuffs(LivingEntity living) {
         living.addEffect(new MobEffectInstance(MobEffects.CONFUSION, UNSTABLE_NAUSEA_DURATION_TICKS, 0));
         living.addEffect(new MobEffectInstance(MobEffects.MOVEMENT_SLOWDOWN, UNSTABLE_SLOWNESS_DURATION_TICKS, UNSTABLE_SLOWNESS_AMPLIFIER));
@@ -30,6 +30,14 @@ public class UniverseGate implements ModInitializer {
 		ModMenuTypes.register();
 		ModSounds.register();
 		ModVillagers.register();
+		EnergyGridManager.register();
+		PortalStructureTracker.register();
+		PortalRegistrySavedData.register();
+		ChargedRodIndex.register();
+		PortalCoreTicker.register();
+		DeadlineScheduler.register();
+		PortalChunkTickets.register();
+		PortalTeleportHandler.register();
 		UniverseGatePoiHelper.registerChargedLightningRodPoi();
 		RiftDeathRecoveryHandler.register();
 		EngineerExpeditionManager.register();
@@ -39,9 +47,8 @@ public class UniverseGate implements ModInitializer {
 		UpdateCheckManager.register();
 		ServerTickEvents.END_WORLD_TICK.register(RiftShadeSpawner::tickWorld);
 		ServerTickEvents.END_WORLD_TICK.register(RiftCubeGenerator::tickWorld);
-		ServerTickEvents.END_WORLD_TICK.register(PortalRiftHelper::tickWorld);
-		ServerTickEvents.END_WORLD_TICK.register(PortalPursuitTracker::tickWorld);
 		ServerTickEvents.END_WORLD_TICK.register(OverworldVillagePortalGenerator::tickWorld);
+		ServerTickEvents.END_WORLD_TICK.register(EnergyGridManager::tickWorld);
 		fr.geomtech.universegate.net.UniverseGateNetwork.registerCommon();
 
 
@@ -20,8 +20,8 @@ public final class WeatherMachineCommand {
     public static void register() {
         CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> dispatcher.register(
                 Commands.literal("universegate")
-                        .requires(source -> source.hasPermission(2))
                         .then(Commands.literal("weather_machine")
+                                .requires(source -> source.hasPermission(2))
                                 .then(Commands.literal("charge")
                                         .executes(context -> chargeNearest(context.getSource()))
                                         .then(Commands.argument("pos", BlockPosArgument.blockPos())
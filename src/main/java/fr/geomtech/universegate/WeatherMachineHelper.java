@@ -6,15 +6,10 @@ import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.block.state.BlockState;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayDeque;
-import java.util.HashSet;
-import java.util.Set;
-
 public final class WeatherMachineHelper {
 
     private static final int STRUCTURE_RADIUS = 1;
     private static final int STRUCTURE_Y_RADIUS = 1;
-    private static final int MAX_CONDUIT_SEARCH = 4096;
 
     private WeatherMachineHelper() {}
 
@@ -101,60 +96,17 @@ public final class WeatherMachineHelper {
     }
 
     private static boolean hasEnergyLink(ServerLevel level, BlockPos condenserBasePos, BlockPos condenserTopPos) {
-        Set<BlockPos> conduitStarts = new HashSet<>();
-        collectAdjacentConduits(level, condenserBasePos, conduitStarts);
-        collectAdjacentConduits(level, condenserTopPos, conduitStarts);
-        if (conduitStarts.isEmpty()) return false;
-
-        Set<BlockPos> visited = new HashSet<>();
-        for (BlockPos start : conduitStarts) {
-            if (!visited.add(start)) continue;
-
-            ArrayDeque<BlockPos> queue = new ArrayDeque<>();
-            queue.add(start);
-
-            boolean touchesBaseCondenser = false;
-            boolean touchesTopCondenser = false;
-            int searched = 0;
-
-            while (!queue.isEmpty()) {
-                BlockPos conduitPos = queue.removeFirst();
-                searched++;
-                if (searched > MAX_CONDUIT_SEARCH) {
-                    return false;
-                }
-
-                for (Direction direction : Direction.values()) {
-                    BlockPos neighborPos = conduitPos.relative(direction);
-                    BlockState neighborState = level.getBlockState(neighborPos);
-
-                    if (neighborPos.equals(condenserBasePos)) {
-                        touchesBaseCondenser = true;
-                    }
-                    if (neighborPos.equals(condenserTopPos)) {
-                        touchesTopCondenser = true;
-                    }
-
-                    if (neighborState.is(ModBlocks.ENERGY_CONDUIT) && visited.add(neighborPos)) {
-                        queue.addLast(neighborPos);
-                    }
+        EnergyGridManager manager = EnergyGridManager.get(level);
+        for (Direction baseSide : Direction.values()) {
+            EnergyGridManager.Grid grid = manager.gridAt(condenserBasePos.relative(baseSide));
+            if (grid == null) continue;
+
+            for (Direction topSide : Direction.values()) {
+                if (grid.containsConduit(condenserTopPos.relative(topSide))) {
+                    return true;
                 }
             }
-
-            if (touchesBaseCondenser && touchesTopCondenser) {
-                return true;
-            }
         }
-
         return false;
     }
-
-    private static void collectAdjacentConduits(ServerLevel level, BlockPos origin, Set<BlockPos> output) {
-        for (Direction direction : Direction.values()) {
-            BlockPos neighborPos = origin.relative(direction);
-            if (level.getBlockState(neighborPos).is(ModBlocks.ENERGY_CONDUIT)) {
-                output.add(neighborPos.immutable());
-            }
-        }
-    }
 }
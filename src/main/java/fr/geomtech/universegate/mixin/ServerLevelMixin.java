@@ -0,0 +1,25 @@
+package fr.geomtech.universegate.mixin;
+
+import fr.geomtech.universegate.EnergyGridManager;
+import fr.geomtech.universegate.PortalStructureTracker;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ServerLevel.class)
+public abstract class ServerLevelMixin {
+
+    @Inject(method = "onBlockStateChange", at = @At("HEAD"))
+    private void universegate$trackBlockStateChange(BlockPos pos,
+                                                    BlockState oldState,
+                                                    BlockState newState,
+                                                    CallbackInfo ci) {
+        ServerLevel self = (ServerLevel) (Object) this;
+        EnergyGridManager.onBlockStateChange(self, pos, oldState, newState);
+        PortalStructureTracker.onBlockStateChange(self, pos, oldState, newState);
+    }
+}
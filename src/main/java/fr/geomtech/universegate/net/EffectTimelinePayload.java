@@ -0,0 +1,37 @@
+package fr.geomtech.universegate.net;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+// A duration of 0 stops the effect running at this origin.
+public record EffectTimelinePayload(int effect,
+                                    BlockPos origin,
+                                    Direction orientation,
+                                    long startTick,
+                                    int durationTicks,
+                                    long seed) implements CustomPacketPayload {
+
+    public static final CustomPacketPayload.Type<EffectTimelinePayload> TYPE =
+            new CustomPacketPayload.Type<>(ResourceLocation.fromNamespaceAndPath("universegate", "effect_timeline"));
+
+    public static final StreamCodec<RegistryFriendlyByteBuf, EffectTimelinePayload> STREAM_CODEC =
+            StreamCodec.composite(
+                    ByteBufCodecs.VAR_INT, EffectTimelinePayload::effect,
+                    BlockPos.STREAM_CODEC, EffectTimelinePayload::origin,
+                    Direction.STREAM_CODEC, EffectTimelinePayload::orientation,
+                    ByteBufCodecs.VAR_LONG, EffectTimelinePayload::startTick,
+                    ByteBufCodecs.VAR_INT, EffectTimelinePayload::durationTicks,
+                    ByteBufCodecs.VAR_LONG, EffectTimelinePayload::seed,
+                    EffectTimelinePayload::new
+            );
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -11,7 +11,20 @@ import net.minecraft.resources.ResourceLocation;
 import java.util.List;
 import java.util.UUID;
 
-public record PortalListPayload(BlockPos keyboardPos, List<PortalInfo> portals) implements CustomPacketPayload {
+/**
+ * One page of a keyboard's portal search: the ids and opening costs of the entries from
+ * {@code offset}, the total number of matches for the scrollbar, and the dimensions holding
+ * portals for the dimension filter. Names and positions come from the client's copy, which a
+ * {@link PortalListSyncPayload} sent just before has brought up to date.
+ */
+public record PortalListPayload(BlockPos keyboardPos,
+                                int requestId,
+                                int offset,
+                                int total,
+                                List<Entry> entries,
+                                List<ResourceLocation> dimensions) implements CustomPacketPayload {
+
+    public record Entry(UUID id, int openEnergyCost) { }
 
     public static final StreamCodec<RegistryFriendlyByteBuf, UUID> UUID_STREAM_CODEC =
             StreamCodec.of(
@@ -43,10 +56,21 @@ public record PortalListPayload(BlockPos keyboardPos, List<PortalInfo> portals)
                     )
             );
 
+    public static final StreamCodec<RegistryFriendlyByteBuf, Entry> ENTRY_CODEC =
+            StreamCodec.composite(
+                    UUID_STREAM_CODEC, Entry::id,
+                    ByteBufCodecs.VAR_INT, Entry::openEnergyCost,
+                    Entry::new
+            );
+
     public static final StreamCodec<RegistryFriendlyByteBuf, PortalListPayload> STREAM_CODEC =
             StreamCodec.composite(
                     BlockPos.STREAM_CODEC, PortalListPayload::keyboardPos,
-                    PORTAL_INFO_CODEC.apply(ByteBufCodecs.list()), PortalListPayload::portals,
+                    ByteBufCodecs.VAR_INT, PortalListPayload::requestId,
+                    ByteBufCodecs.VAR_INT, PortalListPayload::offset,
+                    ByteBufCodecs.VAR_INT, PortalListPayload::total,
+                    ENTRY_CODEC.apply(ByteBufCodecs.list()), PortalListPayload::entries,
+                    ResourceLocation.STREAM_CODEC.apply(ByteBufCodecs.list()), PortalListPayload::dimensions,
                     PortalListPayload::new
             );
 
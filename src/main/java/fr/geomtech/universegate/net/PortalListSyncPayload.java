@@ -0,0 +1,37 @@
+package fr.geomtech.universegate.net;
+
+import fr.geomtech.universegate.PortalInfo;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Brings the client's copy of the portal listings up to date before a {@link PortalListPayload}
+ * refers to them: drops everything on reset, then the ids changed since the copy's version, then
+ * adds the listings the page needs. Costs depend on the keyboard and travel with the page.
+ */
+public record PortalListSyncPayload(boolean reset,
+                                    List<UUID> removed,
+                                    List<PortalInfo> changed) implements CustomPacketPayload {
+
+    public static final CustomPacketPayload.Type<PortalListSyncPayload> TYPE =
+            new CustomPacketPayload.Type<>(ResourceLocation.fromNamespaceAndPath("universegate", "portal_list_sync"));
+
+    public static final StreamCodec<RegistryFriendlyByteBuf, PortalListSyncPayload> STREAM_CODEC =
+            StreamCodec.composite(
+                    ByteBufCodecs.BOOL, PortalListSyncPayload::reset,
+                    PortalListPayload.UUID_STREAM_CODEC.apply(ByteBufCodecs.list()), PortalListSyncPayload::removed,
+                    PortalListPayload.PORTAL_INFO_CODEC.apply(ByteBufCodecs.list()), PortalListSyncPayload::changed,
+                    PortalListSyncPayload::new
+            );
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
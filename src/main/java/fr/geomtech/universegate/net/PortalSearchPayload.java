@@ -0,0 +1,49 @@
+package fr.geomtech.universegate.net;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.Optional;
+
+/**
+ * Asks the server for one page of the portals matching a keyboard search. The answer is a
+ * {@link PortalListPayload} carrying the same request id.
+ */
+public record PortalSearchPayload(BlockPos keyboardPos,
+                                  int requestId,
+                                  String query,
+                                  int sort,
+                                  Optional<ResourceLocation> dimension,
+                                  int offset) implements CustomPacketPayload {
+
+    public static final int SORT_NAME = 0;
+    public static final int SORT_DISTANCE = 1;
+    public static final int SORT_COST = 2;
+    public static final int SORT_COUNT = 3;
+
+    // Same limit as the keyboard search box.
+    public static final int MAX_QUERY_LENGTH = 32;
+
+    public static final CustomPacketPayload.Type<PortalSearchPayload> TYPE =
+            new CustomPacketPayload.Type<>(ResourceLocation.fromNamespaceAndPath("universegate", "portal_search"));
+
+    public static final StreamCodec<RegistryFriendlyByteBuf, PortalSearchPayload> STREAM_CODEC =
+            StreamCodec.composite(
+                    BlockPos.STREAM_CODEC, PortalSearchPayload::keyboardPos,
+                    ByteBufCodecs.VAR_INT, PortalSearchPayload::requestId,
+                    ByteBufCodecs.stringUtf8(MAX_QUERY_LENGTH), PortalSearchPayload::query,
+                    ByteBufCodecs.VAR_INT, PortalSearchPayload::sort,
+                    ByteBufCodecs.optional(ResourceLocation.STREAM_CODEC), PortalSearchPayload::dimension,
+                    ByteBufCodecs.VAR_INT, PortalSearchPayload::offset,
+                    PortalSearchPayload::new
+            );
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
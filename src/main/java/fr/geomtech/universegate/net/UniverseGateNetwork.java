@@ -2,9 +2,9 @@ package fr.geomtech.universegate.net;
 
 import fr.geomtech.universegate.DarkEnergyNetworkHelper;
 import fr.geomtech.universegate.EnergyNetworkHelper;
-import fr.geomtech.universegate.ModBlocks;
 import fr.geomtech.universegate.ModSounds;
 import fr.geomtech.universegate.PortalConnectionManager;
+import fr.geomtech.universegate.PortalStructureTracker;
 import fr.geomtech.universegate.PortalCoreBlockEntity;
 import fr.geomtech.universegate.PortalInfo;
 import fr.geomtech.universegate.PortalKeyboardBlockEntity;
@@ -14,14 +14,29 @@ import fr.geomtech.universegate.PortalNaturalKeyboardBlockEntity;
 import fr.geomtech.universegate.PortalNaturalKeyboardMenu;
 import fr.geomtech.universegate.PortalRiftHelper;
 import fr.geomtech.universegate.PortalRegistrySavedData;
+import fr.geomtech.universegate.UniverseGateDimensions;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.Level;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 public final class UniverseGateNetwork {
 
@@ -30,16 +45,47 @@ public final class UniverseGateNetwork {
     public static final UUID DARK_DIMENSION_ID = UUID.fromString("66666666-6666-6666-6666-666666666666");
     private static final int CORE_SEARCH_RADIUS_XZ = 8;
     private static final int CORE_SEARCH_RADIUS_Y = 4;
+    // Enough rows for a few scroll steps of the keyboard screen.
+    public static final int PORTAL_SEARCH_PAGE_SIZE = 20;
+    private static final String DARK_DIMENSION_SEARCH_NAME = "dark dimension";
+
+    // What each connected player's copy of the portal listings holds; the client drops it on disconnect.
+    // The player's last search is kept sorted, so scrolling through it only slices pages.
+    private static final class PortalListSync {
+        private long version = -1L;
+        private final ObjectOpenHashSet<UUID> known = new ObjectOpenHashSet<>();
+        private SearchKey searchKey;
+        private List<SearchMatch> searchMatches = List.of();
+    }
+
+    // Everything the sorted matches depend on; costs and distances only depend on positions.
+    private record SearchKey(String query,
+                             int sort,
+                             ResourceKey<Level> dimFilter,
+                             ResourceKey<Level> sourceDim,
+                             BlockPos corePos,
+                             UUID selfPortalId,
+                             boolean freeOpening,
+                             long registryVersion) { }
+
+    private static final Map<UUID, PortalListSync> PORTAL_LIST_SYNCS = new HashMap<>();
 
     public static void registerCommon() {
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> PORTAL_LIST_SYNCS.remove(handler.getPlayer().getUUID()));
+        // The registry version restarts with the server.
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> PORTAL_LIST_SYNCS.clear());
+
         // types
+        PayloadTypeRegistry.playS2C().register(PortalListSyncPayload.TYPE, PortalListSyncPayload.STREAM_CODEC);
         PayloadTypeRegistry.playS2C().register(PortalListPayload.TYPE, PortalListPayload.STREAM_CODEC);
         PayloadTypeRegistry.playS2C().register(PortalCoreNamePayload.TYPE, PortalCoreNamePayload.STREAM_CODEC);
         PayloadTypeRegistry.playS2C().register(PortalKeyboardStatusPayload.TYPE, PortalKeyboardStatusPayload.STREAM_CODEC);
         PayloadTypeRegistry.playS2C().register(PortalConnectionErrorPayload.TYPE, PortalConnectionErrorPayload.STREAM_CODEC);
+        PayloadTypeRegistry.playS2C().register(EffectTimelinePayload.TYPE, EffectTimelinePayload.STREAM_CODEC);
         PayloadTypeRegistry.playC2S().register(ConnectPortalPayload.TYPE, ConnectPortalPayload.STREAM_CODEC);
         PayloadTypeRegistry.playC2S().register(RenamePortalPayload.TYPE, RenamePortalPayload.STREAM_CODEC);
         PayloadTypeRegistry.playC2S().register(DisconnectPortalPayload.TYPE, DisconnectPortalPayload.STREAM_CODEC);
+        PayloadTypeRegistry.playC2S().register(PortalSearchPayload.TYPE, PortalSearchPayload.STREAM_CODEC);
 
         // handler C2S (connect)
         ServerPlayNetworking.registerGlobalReceiver(ConnectPortalPayload.TYPE, (payload, context) -> {
@@ -127,6 +173,10 @@ public final class UniverseGateNetwork {
             });
         });
 
+        ServerPlayNetworking.registerGlobalReceiver(PortalSearchPayload.TYPE, (payload, context) -> {
+            context.server().execute(() -> sendPortalSearchPage(context.player(), payload));
+        });
+
         ServerPlayNetworking.registerGlobalReceiver(DisconnectPortalPayload.TYPE, (payload, context) -> {
             context.server().execute(() -> {
                 var player = context.player();
@@ -147,12 +197,18 @@ public final class UniverseGateNetwork {
         });
     }
 
+    // A keyboard opens on the first page of the unfiltered list, sorted by name.
     public static void sendPortalListToPlayer(net.minecraft.server.level.ServerPlayer player, BlockPos keyboardPos) {
-        PortalControllerAccess access = resolveControllerAccess(player, keyboardPos);
+        sendPortalSearchPage(player, new PortalSearchPayload(keyboardPos, 0, "", PortalSearchPayload.SORT_NAME, Optional.empty(), 0));
+    }
+
+    private record SearchMatch(PortalRegistrySavedData.PortalEntry entry, String sortName, long sortValue) { }
+
+    private static void sendPortalSearchPage(net.minecraft.server.level.ServerPlayer player, PortalSearchPayload request) {
+        PortalControllerAccess access = resolveControllerAccess(player, request.keyboardPos());
         if (access == null) return;
 
         var reg = PortalRegistrySavedData.get(player.server);
-        reg.pruneMissingPortals(player.server);
         ServerLevel level = player.serverLevel();
         boolean freeOpening = EnergyNetworkHelper.isRiftDimension(level) || access.naturalKeyboard();
 
@@ -162,30 +218,110 @@ public final class UniverseGateNetwork {
             selfPortalId = core.getPortalId();
         }
 
-        UUID excludedId = selfPortalId;
-        List<PortalInfo> list = reg.listVisible().stream()
-                .filter(e -> excludedId == null || !excludedId.equals(e.id()))
-                .map(e -> new PortalInfo(
-                        e.id(),
-                        e.name().isEmpty() ? shortId(e.id()) : e.name(),
-                        e.dim().location(),
-                        e.pos(),
-                        computePortalOpenCostForUi(level, corePos, e, freeOpening)
-                ))
-                .collect(Collectors.toList());
-
-        // Inject Dark Dimension
-        PortalRegistrySavedData.PortalEntry darkEntry = reg.get(DARK_DIMENSION_ID);
-        int darkOpenCost = computePortalOpenCostForUi(level, corePos, darkEntry, freeOpening);
-        list.add(new PortalInfo(
-                DARK_DIMENSION_ID,
-                "§cDark Dimension",
-                net.minecraft.resources.ResourceLocation.parse("universegate:rift"),
-                BlockPos.ZERO,
-                darkOpenCost
+        ResourceKey<Level> dimFilter = request.dimension()
+                .map(location -> ResourceKey.create(Registries.DIMENSION, location))
+                .orElse(null);
+        String query = request.query().trim().toLowerCase(Locale.ROOT);
+
+        PortalListSync sync = PORTAL_LIST_SYNCS.computeIfAbsent(player.getUUID(), k -> new PortalListSync());
+        SearchKey searchKey = new SearchKey(query, request.sort(), dimFilter, level.dimension(), corePos,
+                selfPortalId, freeOpening, reg.getVisibleVersion());
+        if (!searchKey.equals(sync.searchKey)) {
+            List<SearchMatch> matches = new ArrayList<>();
+            for (PortalRegistrySavedData.PortalEntry e : reg.searchVisible(query, dimFilter)) {
+                if (e.id().equals(selfPortalId)) continue;
+                String sortName = PortalRegistrySavedData.displayName(e).toLowerCase(Locale.ROOT);
+                matches.add(new SearchMatch(e, sortName, sortValue(request.sort(), level, corePos, e, freeOpening)));
+            }
+            matches.sort(Comparator.comparingLong(SearchMatch::sortValue)
+                    .thenComparing(SearchMatch::sortName)
+                    .thenComparing(match -> match.entry().id()));
+            sync.searchKey = searchKey;
+            sync.searchMatches = matches;
+        }
+        List<SearchMatch> matches = sync.searchMatches;
+
+        // The Dark Dimension always comes last, after the registry matches.
+        boolean darkMatches = (dimFilter == null || dimFilter.equals(UniverseGateDimensions.RIFT))
+                && DARK_DIMENSION_SEARCH_NAME.contains(query);
+        int total = matches.size() + (darkMatches ? 1 : 0);
+        int offset = Mth.clamp(request.offset(), 0, Math.max(0, total - 1));
+
+        List<PortalRegistrySavedData.PortalEntry> pageEntries = new ArrayList<>(PORTAL_SEARCH_PAGE_SIZE);
+        List<PortalListPayload.Entry> page = new ArrayList<>(PORTAL_SEARCH_PAGE_SIZE);
+        for (int i = offset; i < matches.size() && page.size() < PORTAL_SEARCH_PAGE_SIZE; i++) {
+            PortalRegistrySavedData.PortalEntry e = matches.get(i).entry();
+            pageEntries.add(e);
+            page.add(new PortalListPayload.Entry(e.id(), computePortalOpenCostForUi(level, corePos, e, freeOpening)));
+        }
+        // The client builds the Dark Dimension row itself: it is not in the registry.
+        if (darkMatches && page.size() < PORTAL_SEARCH_PAGE_SIZE && offset + page.size() == matches.size()) {
+            PortalRegistrySavedData.PortalEntry darkEntry = reg.get(DARK_DIMENSION_ID);
+            page.add(new PortalListPayload.Entry(DARK_DIMENSION_ID, computePortalOpenCostForUi(level, corePos, darkEntry, freeOpening)));
+        }
+        syncPortalListings(player, sync, reg, pageEntries);
+
+        List<ResourceLocation> dimensions = new ArrayList<>();
+        for (ResourceKey<Level> dim : reg.dimensionsWithVisiblePortals()) {
+            dimensions.add(dim.location());
+        }
+        dimensions.sort(Comparator.comparing(ResourceLocation::toString));
+
+        ServerPlayNetworking.send(player, new PortalListPayload(
+                access.controllerPos(),
+                request.requestId(),
+                offset,
+                total,
+                page,
+                dimensions
         ));
+    }
+
+    // Sent before every page: drops the listings changed since the player's copy, then adds the
+    // ones this page shows that the copy does not hold, so a warm copy costs a few bytes per page.
+    private static void syncPortalListings(net.minecraft.server.level.ServerPlayer player,
+                                           PortalListSync sync,
+                                           PortalRegistrySavedData reg,
+                                           List<PortalRegistrySavedData.PortalEntry> pageEntries) {
+        Collection<UUID> changes = reg.visibleChangesSince(sync.version);
+        boolean reset = changes == null;
+        List<UUID> removed = new ArrayList<>();
+        if (reset) {
+            sync.known.clear();
+        } else {
+            for (UUID id : changes) {
+                if (sync.known.remove(id)) {
+                    removed.add(id);
+                }
+            }
+        }
+        sync.version = reg.getVisibleVersion();
+
+        List<PortalInfo> changed = new ArrayList<>();
+        for (PortalRegistrySavedData.PortalEntry e : pageEntries) {
+            if (sync.known.add(e.id())) {
+                changed.add(new PortalInfo(e.id(), PortalRegistrySavedData.displayName(e), e.dim().location(), e.pos(), 0));
+            }
+        }
+        if (reset || !removed.isEmpty() || !changed.isEmpty()) {
+            ServerPlayNetworking.send(player, new PortalListSyncPayload(reset, removed, changed));
+        }
+    }
 
-        ServerPlayNetworking.send(player, new PortalListPayload(access.controllerPos(), list));
+    // Name order uses 0 for every entry, so only the name comparison applies.
+    private static long sortValue(int sort,
+                                  ServerLevel level,
+                                  BlockPos corePos,
+                                  PortalRegistrySavedData.PortalEntry e,
+                                  boolean freeOpening) {
+        if (sort == PortalSearchPayload.SORT_COST) {
+            return computePortalOpenCostForUi(level, corePos, e, freeOpening);
+        }
+        if (sort == PortalSearchPayload.SORT_DISTANCE && corePos != null) {
+            // Other dimensions after every portal of this one.
+            return level.dimension().equals(e.dim()) ? (long) corePos.distSqr(e.pos()) : Long.MAX_VALUE;
+        }
+        return 0L;
     }
 
     private static int computePortalOpenCostForUi(ServerLevel sourceLevel,
@@ -235,13 +371,13 @@ public final class UniverseGateNetwork {
 
         if (player.containerMenu instanceof PortalNaturalKeyboardMenu naturalMenu
                 && naturalMenu.getKeyboardPos().equals(controllerPos)) {
-            BlockPos corePos = findCoreNear(level, controllerPos, CORE_SEARCH_RADIUS_XZ);
+            BlockPos corePos = PortalConnectionManager.resolveKeyboardCore(level, controllerPos, false);
             return new PortalControllerAccess(controllerPos, corePos, true);
         }
 
         if (player.containerMenu instanceof PortalKeyboardMenu keyboardMenu
                 && keyboardMenu.getKeyboardPos().equals(controllerPos)) {
-            BlockPos corePos = findCoreNear(level, controllerPos, CORE_SEARCH_RADIUS_XZ);
+            BlockPos corePos = PortalConnectionManager.resolveKeyboardCore(level, controllerPos, false);
             return new PortalControllerAccess(controllerPos, corePos, false);
         }
 
@@ -252,12 +388,12 @@ public final class UniverseGateNetwork {
         }
 
         if (level.getBlockEntity(controllerPos) instanceof PortalNaturalKeyboardBlockEntity) {
-            BlockPos corePos = findCoreNear(level, controllerPos, CORE_SEARCH_RADIUS_XZ);
+            BlockPos corePos = PortalConnectionManager.resolveKeyboardCore(level, controllerPos, false);
             return new PortalControllerAccess(controllerPos, corePos, true);
         }
 
         if (level.getBlockEntity(controllerPos) instanceof PortalKeyboardBlockEntity) {
-            BlockPos corePos = findCoreNear(level, controllerPos, CORE_SEARCH_RADIUS_XZ);
+            BlockPos corePos = PortalConnectionManager.resolveKeyboardCore(level, controllerPos, false);
             return new PortalControllerAccess(controllerPos, corePos, false);
         }
 
@@ -266,39 +402,10 @@ public final class UniverseGateNetwork {
 
     private static boolean isNaturalKeyboardContext(ServerLevel level, BlockPos corePos) {
         if (corePos == null) return false;
-        return hasNaturalKeyboardNear(level, corePos, CORE_SEARCH_RADIUS_XZ, CORE_SEARCH_RADIUS_Y);
-    }
-
-    private static boolean hasNaturalKeyboardNear(ServerLevel level, BlockPos center, int radiusXZ, int radiusY) {
-        for (int y = -radiusY; y <= radiusY; y++) {
-            for (int x = -radiusXZ; x <= radiusXZ; x++) {
-                for (int z = -radiusXZ; z <= radiusXZ; z++) {
-                    BlockPos p = center.offset(x, y, z);
-                    if (!level.hasChunkAt(p)) continue;
-                    if (level.getBlockState(p).is(ModBlocks.PORTAL_NATURAL_KEYBOARD)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
-    }
-
-    private static String shortId(java.util.UUID id) {
-        String s = id.toString();
-        return "Portal " + s.substring(0, 8);
+        return PortalConnectionManager.hasBoundNaturalKeyboard(level, corePos);
     }
 
     private static BlockPos findCoreNear(ServerLevel level, BlockPos center, int r) {
-        for (int y = -CORE_SEARCH_RADIUS_Y; y <= CORE_SEARCH_RADIUS_Y; y++) {
-            for (int x = -r; x <= r; x++) {
-                for (int z = -r; z <= r; z++) {
-                    BlockPos p = center.offset(x, y, z);
-                    if (!level.hasChunkAt(p)) continue;
-                    if (level.getBlockState(p).is(ModBlocks.PORTAL_CORE)) return p;
-                }
-            }
-        }
-        return null;
+        return PortalStructureTracker.findCoreNear(level, center, r, CORE_SEARCH_RADIUS_Y, false);
     }
 }